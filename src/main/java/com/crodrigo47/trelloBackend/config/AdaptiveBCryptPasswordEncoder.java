@@ -0,0 +1,84 @@
+package com.crodrigo47.trelloBackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCryptPasswordEncoder cuyo coste se puede calibrar al arrancar para que un hash tarde
+ * aproximadamente un tiempo objetivo en el hardware actual.
+ * A diferencia del encoder base, upgradeEncoding() devuelve true para cualquier hash con un
+ * coste distinto del configurado (mayor o menor), de modo que el login lo puede rehashear.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    public static final int MIN_STRENGTH = 4;
+    public static final int MAX_STRENGTH = 16;
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[abyx]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+
+    /**
+     * Coste de un hash BCrypt ("$2a$10$..." -> 10), o -1 si no es un hash BCrypt válido.
+     */
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * Busca el menor coste (a partir de minStrength) con el que un hash tarda al menos 'target'.
+     * Cada punto de coste duplica el tiempo, así que la calibración cuesta unas dos veces 'target'.
+     */
+    public static int calibrate(Duration target, int minStrength) {
+        int strength = Math.max(MIN_STRENGTH, Math.min(minStrength, MAX_STRENGTH));
+
+        while (strength < MAX_STRENGTH) {
+            Duration elapsed = measure(strength);
+            if (elapsed.compareTo(target) >= 0) {
+                break;
+            }
+            strength++;
+        }
+
+        logger.info("BCrypt strength calibrated to {} for a target hash time of {} ms", strength, target.toMillis());
+        return strength;
+    }
+
+    // Se mide dos veces y se toma el mínimo para descontar el calentamiento de la JVM
+    private static Duration measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode("bcrypt-calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(best);
+    }
+}
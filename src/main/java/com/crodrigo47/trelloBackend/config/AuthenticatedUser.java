@@ -0,0 +1,79 @@
+package com.crodrigo47.trelloBackend.config;
+
+import com.crodrigo47.trelloBackend.model.User;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Principal ligero construido a partir de los claims de un JWT verificado.
+ * Permite saber quién llama (id, username y rol) sin consultar la base de datos.
+ */
+public record AuthenticatedUser(Long id, String username, User.Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * Devuelve un User desacoplado con id, username y rol.
+     * Sirve como referencia para los servicios (comparan por id), pero sus colecciones
+     * no están cargadas: si hace falta el estado completo hay que leerlo de la BD.
+     */
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .username(username)
+                .role(role)
+                .build();
+    }
+
+    // Construir el principal desde el token; null si el token no trae los claims (tokens antiguos)
+    public static AuthenticatedUser from(JwtToken token) {
+        Number id = token.claim(JwtUtil.CLAIM_USER_ID, Number.class);
+        String role = token.claim(JwtUtil.CLAIM_ROLE, String.class);
+        if (token.subject() == null || id == null || role == null) {
+            return null;
+        }
+        try {
+            return new AuthenticatedUser(id.longValue(), token.subject(), User.Role.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+
+    // Extraer el AuthenticatedUser de un Principal/Authentication, si lo hay
+    public static Optional<AuthenticatedUser> of(Object principal) {
+        if (principal instanceof Authentication authentication) {
+            principal = authentication.getPrincipal();
+        }
+        return principal instanceof AuthenticatedUser authenticatedUser
+                ? Optional.of(authenticatedUser)
+                : Optional.empty();
+    }
+
+    // Username asociado a cualquier tipo de principal (String, Principal o Authentication)
+    public static String usernameOf(Object principal) {
+        if (principal == null) {
+            return null;
+        }
+        if (principal instanceof Principal p) {
+            return p.getName();
+        }
+        return principal.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.crodrigo47.trelloBackend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cuenta los GET que llevan ETag por endpoint (patrón de la ruta) y resultado:
+ * 'not_modified' (304) o 'full' (cuerpo completo). El ratio de 304 de cada endpoint es
+ * not_modified / (not_modified + full).
+ */
+@Component
+public class ConditionalGetMetricsInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public ConditionalGetMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (!"GET".equals(request.getMethod()) || response.getHeader(HttpHeaders.ETAG) == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        boolean notModified = response.getStatus() == HttpStatus.NOT_MODIFIED.value();
+        Counter.builder("http.conditional.get")
+                .description("GET responses carrying an ETag, by endpoint and whether they were answered with 304")
+                .tag("endpoint", pattern != null ? pattern.toString() : "unknown")
+                .tag("result", notModified ? "not_modified" : "full")
+                .register(meterRegistry)
+                .increment();
+    }
+}
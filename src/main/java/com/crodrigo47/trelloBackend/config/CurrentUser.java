@@ -0,0 +1,23 @@
+package com.crodrigo47.trelloBackend.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Inyecta en un parámetro de controlador el User que hace la petición.
+ * Se resuelve como mucho una vez por petición (ver CurrentUserArgumentResolver).
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    /**
+     * Si es true, el usuario se lee de la BD en lugar de construirse desde los claims del token
+     * (para operaciones sensibles). Se puede desactivar con jwt.stateless-principal.verify-sensitive.
+     */
+    boolean verified() default false;
+}
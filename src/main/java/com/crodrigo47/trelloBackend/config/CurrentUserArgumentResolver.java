@@ -0,0 +1,95 @@
+package com.crodrigo47.trelloBackend.config;
+
+import com.crodrigo47.trelloBackend.exception.UserNotFoundException;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resuelve los parámetros anotados con @CurrentUser.
+ * - Si el principal trae id y rol (JWT), se construye el User sin consultar la BD.
+ * - Si no, se busca por username una sola vez y se guarda en la petición.
+ * - Con @CurrentUser(verified = true) se exige un User leído de la BD.
+ * El resultado se memoriza como atributo de la petición, de modo que el filtro, el controlador
+ * y los servicios comparten la misma instancia.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    /** User construido desde el principal (puede no venir de la BD). */
+    public static final String CURRENT_USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".CURRENT_USER";
+    /** User leído de la BD durante esta petición. */
+    public static final String VERIFIED_USER_ATTRIBUTE = CurrentUserArgumentResolver.class.getName() + ".VERIFIED_USER";
+
+    private final UserService userService;
+    private final boolean verifySensitiveOperations;
+
+    public CurrentUserArgumentResolver(@Lazy UserService userService,
+                                       @Value("${jwt.stateless-principal.verify-sensitive:true}") boolean verifySensitiveOperations) {
+        this.userService = userService;
+        this.verifySensitiveOperations = verifySensitiveOperations;
+    }
+
+    @Override
+    public boolean supportsParameter(@NonNull MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && User.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(@NonNull MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  @NonNull NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        CurrentUser annotation = parameter.getParameterAnnotation(CurrentUser.class);
+        boolean verified = annotation != null && annotation.verified() && verifySensitiveOperations;
+
+        User loaded = (User) webRequest.getAttribute(VERIFIED_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loaded != null) {
+            return loaded;
+        }
+        if (!verified) {
+            User current = (User) webRequest.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (current != null) {
+                return current;
+            }
+        }
+
+        Object principal = currentPrincipal(webRequest);
+        AuthenticatedUser authenticated = AuthenticatedUser.of(principal).orElse(null);
+
+        if (authenticated != null && !verified) {
+            User current = authenticated.toUser();
+            webRequest.setAttribute(CURRENT_USER_ATTRIBUTE, current, RequestAttributes.SCOPE_REQUEST);
+            return current;
+        }
+
+        User user = (authenticated != null
+                ? userService.getUserById(authenticated.id())
+                : userService.getUserByUsername(AuthenticatedUser.usernameOf(principal)))
+                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
+
+        webRequest.setAttribute(VERIFIED_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    // El SecurityContext tiene prioridad; si está vacío se usa el principal de la petición
+    private Object currentPrincipal(NativeWebRequest webRequest) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null) {
+            return authentication;
+        }
+        return webRequest.getUserPrincipal();
+    }
+}
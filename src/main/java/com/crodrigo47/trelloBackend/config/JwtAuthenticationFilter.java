@@ -4,7 +4,9 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,7 +16,11 @@ import org.springframework.lang.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.service.AccountDeletionService;
+
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,10 +29,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final AccountDeletionService accountDeletionService;
+    private final boolean statelessPrincipal;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil,
+                                   CustomUserDetailsService userDetailsService,
+                                   VerifiedTokenCache tokenCache,
+                                   AccountDeletionService accountDeletionService,
+                                   @Value("${jwt.stateless-principal.enabled:true}") boolean statelessPrincipal) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.accountDeletionService = accountDeletionService;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -46,21 +62,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            String username = jwtUtil.extractUsername(token);
+            JwtToken parsed = tokenCache.getOrParse(token, jwtUtil::parseToken);
+            String username = parsed.subject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtUtil.validateToken(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails.getUsername(),
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-                
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                AuthenticatedUser principal = statelessPrincipal ? AuthenticatedUser.from(parsed) : null;
+
+                if (principal != null && !parsed.isExpired()) {
+                    // El token ya trae id y rol: no hace falta ir a la BD
+                    if (!isBeingDeleted(principal.id(), request, token)) {
+                        authenticate(request, principal, principal.getAuthorities());
+                    }
+                } else {
+                    // Tokens sin claims de usuario (o modo stateless desactivado): cargar desde la BD
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    User user = userDetails instanceof CustomUserDetails custom ? custom.getUser() : null;
+
+                    if (jwtUtil.validateToken(parsed, userDetails)
+                            && !isBeingDeleted(user != null ? user.getId() : null, request, token)) {
+                        Object authPrincipal = userDetails.getUsername();
+                        if (user != null) {
+                            authPrincipal = AuthenticatedUser.from(user);
+                            // El usuario ya se ha leído: se reutiliza en @CurrentUser sin volver a consultarlo
+                            request.setAttribute(CurrentUserArgumentResolver.VERIFIED_USER_ATTRIBUTE, user);
+                        }
+                        authenticate(request, authPrincipal, userDetails.getAuthorities());
+                    }
                 }
             }
         } catch (Exception e) {
@@ -69,4 +96,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Con el borrado de la cuenta pedido el token deja de autenticar (y sale de la caché).
+     * Solo se permite consultar el progreso del borrado: GET /users/{id}/deletion.
+     */
+    private boolean isBeingDeleted(Long userId, HttpServletRequest request, String token) {
+        if (!accountDeletionService.isPending(userId)) {
+            return false;
+        }
+        tokenCache.invalidate(token);
+        return !("GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/deletion"));
+    }
+
+    private void authenticate(HttpServletRequest request,
+                              Object principal,
+                              Collection<? extends GrantedAuthority> authorities) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(principal, null, authorities);
+
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
@@ -0,0 +1,54 @@
+package com.crodrigo47.trelloBackend.config;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Vista inmutable de un JWT ya verificado.
+ * Se construye una sola vez por petición a partir de los claims que devuelve el parser,
+ * de forma que el filtro y el resto de la aplicación no vuelvan a comprobar la firma.
+ */
+public record JwtToken(
+        String subject,
+        Instant issuedAt,
+        Instant expiration,
+        Map<String, Object> claims
+) {
+
+    public JwtToken {
+        claims = claims != null
+                ? Collections.unmodifiableMap(new LinkedHashMap<>(claims))
+                : Map.of();
+    }
+
+    static JwtToken from(Claims claims) {
+        return new JwtToken(
+                claims.getSubject(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()),
+                claims
+        );
+    }
+
+    public boolean isExpired() {
+        return isExpired(Instant.now());
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiration != null && expiration.isBefore(now);
+    }
+
+    public <T> T claim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.crodrigo47.trelloBackend.config;
 
+import com.crodrigo47.trelloBackend.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -17,7 +19,11 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+
     private final Key key;
+    private final JwtParser jwtParser;
     private final long jwtExpirationMs;
 
     public JwtUtil(
@@ -25,9 +31,18 @@ public class JwtUtil {
             @Value("${jwt.expiration-ms:86400000}") long jwtExpirationMs // por defecto 24h
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        // El parser es inmutable y thread-safe: se construye una vez y se reutiliza
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
         this.jwtExpirationMs = jwtExpirationMs;
     }
 
+    // Verificar la firma y decodificar el token en una sola pasada
+    public JwtToken parseToken(String token) {
+        return JwtToken.from(extractAllClaims(token));
+    }
+
     // Extraer claims genéricos
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
@@ -46,13 +61,25 @@ public class JwtUtil {
 
     // Validar si un token sigue siendo válido
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseToken(token), userDetails);
     }
 
-    // Generar token para un usuario
+    // Validar un token ya verificado sin volver a comprobar la firma
+    public boolean validateToken(JwtToken token, UserDetails userDetails) {
+        return token.subject() != null
+                && token.subject().equals(userDetails.getUsername())
+                && !token.isExpired();
+    }
+
+    // Generar token para un usuario (incluye id y rol para no consultar la BD en cada petición)
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof CustomUserDetails custom && custom.getUser() != null) {
+            User user = custom.getUser();
+            if (user.getId() != null) claims.put(CLAIM_USER_ID, user.getId());
+            if (user.getRole() != null) claims.put(CLAIM_ROLE, user.getRole().name());
+        }
+        return generateToken(claims, userDetails);
     }
 
     // Generar token con claims extra
@@ -71,14 +98,8 @@ public class JwtUtil {
     // =============================
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
 }
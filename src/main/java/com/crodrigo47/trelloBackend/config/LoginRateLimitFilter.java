@@ -0,0 +1,208 @@
+package com.crodrigo47.trelloBackend.config;
+
+import com.crodrigo47.trelloBackend.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Limita las peticiones a POST /auth/login con dos token buckets: uno por IP y otro por username.
+ * El login es público y registra usuarios nuevos, así que sin límite un cliente puede forzar
+ * hashes BCrypt e inserts en 'users' sin control. Las peticiones rechazadas reciben 429.
+ * Un body de login de más de MAX_BODY_BYTES no es legítimo y recibe 413 sin pasar al controlador.
+ */
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter usernameLimiter;
+    private final Counter ipRejections;
+    private final Counter usernameRejections;
+
+    public LoginRateLimitFilter(
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${auth.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${auth.rate-limit.ip.refill-period:PT1M}") Duration ipRefillPeriod,
+            @Value("${auth.rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${auth.rate-limit.username.refill-period:PT1M}") Duration usernameRefillPeriod,
+            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefillPeriod, maxKeys);
+        this.usernameLimiter = new TokenBucketRateLimiter(usernameCapacity, usernameRefillPeriod, maxKeys);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.ipRejections = Counter.builder("auth.login.rate-limited")
+                .tag("key", "ip")
+                .description("Login attempts rejected by the rate limiter")
+                .register(registry);
+        this.usernameRejections = Counter.builder("auth.login.rate-limited")
+                .tag("key", "username")
+                .description("Login attempts rejected by the rate limiter")
+                .register(registry);
+        Gauge.builder("auth.login.rate-limit.buckets", ipLimiter, TokenBucketRateLimiter::size)
+                .tag("key", "ip")
+                .register(registry);
+        Gauge.builder("auth.login.rate-limit.buckets", usernameLimiter, TokenBucketRateLimiter::size)
+                .tag("key", "username")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled
+                || !"POST".equalsIgnoreCase(request.getMethod())
+                || !LOGIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!ipLimiter.tryAcquire(request.getRemoteAddr())) {
+            ipRejections.increment();
+            reject(response, ipLimiter.timePerToken());
+            return;
+        }
+
+        // Hay que leer el body para conocer el username; se envuelve la petición para poder releerlo
+        byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            writeError(response, 413, "Payload Too Large", "Login request body is too large");
+            return;
+        }
+        CachedBodyRequest wrapped = new CachedBodyRequest(request, body);
+
+        String username = extractUsername(body);
+        if (username != null && !usernameLimiter.tryAcquire(username)) {
+            usernameRejections.increment();
+            reject(response, usernameLimiter.timePerToken());
+            return;
+        }
+
+        filterChain.doFilter(wrapped, response);
+    }
+
+    private String extractUsername(byte[] body) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            JsonNode username = node != null ? node.get("username") : null;
+            return username != null && username.isTextual() ? username.asText().trim() : null;
+        } catch (IOException e) {
+            // Body inválido: lo rechazará el controlador; aquí solo se aplica el límite por IP
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, Duration retryAfter) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        writeError(response, 429, "Too Many Requests", "Too many login attempts, try again later");
+    }
+
+    private void writeError(HttpServletResponse response, int status, String error, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status, error, message, Instant.now()));
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // El body ya está entero en memoria: todo está disponible desde el principio
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.crodrigo47.trelloBackend.config;
 
+import java.time.Duration;
 import java.util.Arrays;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -15,18 +18,41 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+
 @Configuration
 public class SecurityConfig {
 
+    private static final int DEFAULT_BCRYPT_STRENGTH = 10;
+
+    /**
+     * Coste de BCrypt:
+     * - auth.bcrypt.strength fija el coste explícitamente.
+     * - Si no, auth.bcrypt.target-hash-time lo calibra al arrancar (nunca por debajo de min-strength).
+     * - Sin ninguna de las dos se usa el coste por defecto (10).
+     */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(
+            @Value("${auth.bcrypt.strength:0}") int strength,
+            @Value("${auth.bcrypt.target-hash-time:#{null}}") Duration targetHashTime,
+            @Value("${auth.bcrypt.min-strength:10}") int minStrength
+    ) {
+        if (strength > 0) {
+            return new AdaptiveBCryptPasswordEncoder(strength);
+        }
+        if (targetHashTime != null) {
+            return new AdaptiveBCryptPasswordEncoder(AdaptiveBCryptPasswordEncoder.calibrate(targetHashTime, minStrength));
+        }
+        return new AdaptiveBCryptPasswordEncoder(DEFAULT_BCRYPT_STRENGTH);
     }
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter,
+                          LoginRateLimitFilter loginRateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.loginRateLimitFilter = loginRateLimitFilter;
     }
 
     @Bean
@@ -36,8 +62,11 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:4200"));
         // Métodos HTTP permitidos
         configuration.setAllowedMethods(Arrays.asList("GET","POST", "PUT", "DELETE", "OPTIONS"));
-        // Cabeceras permitidas
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        // Cabeceras permitidas (también las condicionales, para trabajar con los ETag)
+        configuration.setAllowedHeaders(Arrays.asList(HttpHeaders.AUTHORIZATION, HttpHeaders.CONTENT_TYPE,
+                HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MATCH));
+        // Cabeceras que el frontend puede leer (cursor de paginación y ETag)
+        configuration.setExposedHeaders(Arrays.asList(CursorPage.NEXT_CURSOR_HEADER, HttpHeaders.ETAG));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
         return source;
@@ -56,6 +85,7 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // sin sesiones
             );
 
+        http.addFilterBefore(loginRateLimitFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -0,0 +1,115 @@
+package com.crodrigo47.trelloBackend.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket en memoria, uno por clave (usuario, IP...).
+ * - Cada bucket es un estado inmutable en un AtomicReference: consumir un token es un bucle CAS, sin locks.
+ * - Un bucket lleno se puede descartar sin cambiar el comportamiento: así la memoria queda acotada
+ *   por maxKeys. Las claves se recorren por antigüedad (cola sin locks): con el límite alcanzado,
+ *   cada clave nueva mira como mucho EVICTION_SCAN buckets, descarta los llenos y a los demás los
+ *   manda al final. Si no encuentra sitio la clave nueva se rechaza: nunca se descarta un bucket
+ *   a medio gastar, que sería regalar una ráfaga nueva a quien ya la ha agotado.
+ */
+public class TokenBucketRateLimiter {
+
+    // Buckets revisados por clave nueva cuando se ha llegado a maxKeys
+    static final int EVICTION_SCAN = 8;
+
+    private record State(double tokens, long lastRefillNanos) {}
+
+    private final Map<String, AtomicReference<State>> buckets = new ConcurrentHashMap<>();
+    // Cada clave de 'buckets' una vez, de la más antigua a la más reciente
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long fullRefillNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, int maxKeys) {
+        this(capacity, refillPeriod, maxKeys, System::nanoTime);
+    }
+
+    /**
+     * @param capacity     tokens máximos (tamaño de la ráfaga permitida)
+     * @param refillPeriod tiempo en recargar 'capacity' tokens desde cero
+     * @param maxKeys      número máximo de buckets en memoria
+     */
+    TokenBucketRateLimiter(int capacity, Duration refillPeriod, int maxKeys, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        this.fullRefillNanos = Math.max(1, refillPeriod.toNanos());
+        this.tokensPerNano = this.capacity / fullRefillNanos;
+        this.maxKeys = Math.max(1, maxKeys);
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicReference<State> bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys && !evictFull(now)) {
+                return false;
+            }
+            AtomicReference<State> created = new AtomicReference<>(new State(capacity, now));
+            bucket = buckets.putIfAbsent(key, created);
+            if (bucket == null) {
+                bucket = created;
+                order.offer(key);
+            }
+        }
+
+        while (true) {
+            State current = bucket.get();
+            long elapsed = Math.max(0, now - current.lastRefillNanos());
+            double available = Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+            if (available < 1) {
+                return false;
+            }
+            State next = new State(available - 1, Math.max(now, current.lastRefillNanos()));
+            if (bucket.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    // Tiempo que tarda en recargarse un token: valor razonable para Retry-After
+    public Duration timePerToken() {
+        return Duration.ofNanos((long) Math.ceil(1 / tokensPerNano));
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // true si queda sitio para una clave nueva
+    private boolean evictFull(long now) {
+        for (int i = 0; i < EVICTION_SCAN && buckets.size() >= maxKeys; i++) {
+            String key = order.poll();
+            if (key == null) {
+                break;
+            }
+            AtomicReference<State> bucket = buckets.get(key);
+            if (bucket == null) {
+                continue;
+            }
+            // Activo (o recién usado por otro hilo): al final de la cola
+            State state = bucket.get();
+            if (!isFull(state, now) || bucket.get() != state || !buckets.remove(key, bucket)) {
+                order.offer(key);
+            }
+        }
+        return buckets.size() < maxKeys;
+    }
+
+    private boolean isFull(State state, long now) {
+        long elapsed = Math.max(0, now - state.lastRefillNanos());
+        return state.tokens() + elapsed * tokensPerNano >= capacity;
+    }
+}
@@ -0,0 +1,181 @@
+package com.crodrigo47.trelloBackend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caché acotada de tokens ya verificados.
+ * Los clientes reutilizan el mismo bearer token en muchas peticiones seguidas; así solo se
+ * comprueba la firma y se decodifican los claims la primera vez.
+ * - La clave es un hash SHA-256 del token (no se guarda el token en memoria).
+ * - Cada entrada caduca como muy tarde en el 'exp' del propio token.
+ * - El tamaño está limitado: al llenarse se descarta la entrada usada hace más tiempo (LRU).
+ * - Las entradas caducadas se barren cada 'maxSize / 4' inserciones, así el coste del barrido
+ *   se reparte entre muchas inserciones en lugar de pagarse en cada fallo con la caché llena.
+ * El mapa (LinkedHashMap en orden de acceso) solo se toca dentro de 'synchronized (entries)';
+ * la verificación del token se hace fuera del lock.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(JwtToken token, Instant expiresAt) {}
+
+    private final LinkedHashMap<String, Entry> entries;
+    private final boolean enabled;
+    private final int maxSize;
+    private final int sweepInterval;
+    private int insertsSinceSweep;
+    private final Duration maxTtl;
+    private final Clock clock;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public VerifiedTokenCache(
+            @Value("${jwt.token-cache.enabled:true}") boolean enabled,
+            @Value("${jwt.token-cache.max-size:10000}") int maxSize,
+            @Value("${jwt.token-cache.max-ttl:PT5M}") Duration maxTtl,
+            MeterRegistry meterRegistry
+    ) {
+        this(enabled, maxSize, maxTtl, meterRegistry, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(boolean enabled, int maxSize, Duration maxTtl, MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = enabled;
+        this.maxSize = Math.max(1, maxSize);
+        this.sweepInterval = Math.max(1, this.maxSize / 4);
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > VerifiedTokenCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("jwt.token.cache.gets")
+                .tag("result", "hit")
+                .description("Verified token cache lookups")
+                .register(meterRegistry);
+        this.misses = Counter.builder("jwt.token.cache.gets")
+                .tag("result", "miss")
+                .description("Verified token cache lookups")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("jwt.token.cache.evictions")
+                .description("Entries removed because they expired or the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("jwt.token.cache.size", this, VerifiedTokenCache::size)
+                .description("Verified tokens currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el token verificado desde la caché o, si no está, lo verifica con 'parser'
+     * y lo guarda. Los tokens inválidos no se cachean (el parser lanza la excepción).
+     */
+    public JwtToken getOrParse(String token, Function<String, JwtToken> parser) {
+        if (!enabled) {
+            return parser.apply(token);
+        }
+
+        String key = hash(token);
+        Instant now = clock.instant();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt().isAfter(now)) {
+                    hits.increment();
+                    return entry.token();
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        JwtToken parsed = parser.apply(token);
+        put(key, parsed, now);
+        return parsed;
+    }
+
+    // Olvida un token concreto (p. ej. de un usuario con el borrado de cuenta pedido)
+    public void invalidate(String token) {
+        String key = hash(token);
+        synchronized (entries) {
+            if (entries.remove(key) != null) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void put(String key, JwtToken parsed, Instant now) {
+        Instant expiresAt = now.plus(maxTtl);
+        if (parsed.expiration() != null && parsed.expiration().isBefore(expiresAt)) {
+            expiresAt = parsed.expiration();
+        }
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+
+        synchronized (entries) {
+            if (++insertsSinceSweep >= sweepInterval) {
+                insertsSinceSweep = 0;
+                removeExpired(now);
+            }
+            // Si sobrepasa maxSize, removeEldestEntry descarta la menos usada
+            entries.put(key, new Entry(parsed, expiresAt));
+        }
+    }
+
+    private void removeExpired(Instant now) {
+        entries.values().removeIf(e -> {
+            boolean expired = !e.expiresAt().isAfter(now);
+            if (expired) evictions.increment();
+            return expired;
+        });
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
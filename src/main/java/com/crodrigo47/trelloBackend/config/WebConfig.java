@@ -0,0 +1,32 @@
+package com.crodrigo47.trelloBackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
+    private final ConditionalGetMetricsInterceptor conditionalGetMetricsInterceptor;
+
+    public WebConfig(CurrentUserArgumentResolver currentUserArgumentResolver,
+                     ConditionalGetMetricsInterceptor conditionalGetMetricsInterceptor) {
+        this.currentUserArgumentResolver = currentUserArgumentResolver;
+        this.conditionalGetMetricsInterceptor = conditionalGetMetricsInterceptor;
+    }
+
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalGetMetricsInterceptor);
+    }
+}
@@ -1,48 +1,92 @@
 package com.crodrigo47.trelloBackend.controller;
 
+import com.crodrigo47.trelloBackend.config.CustomUserDetails;
 import com.crodrigo47.trelloBackend.config.JwtUtil;
 import com.crodrigo47.trelloBackend.dto.AuthResponseDto;
 import com.crodrigo47.trelloBackend.exception.InvalidPasswordException;
+import com.crodrigo47.trelloBackend.exception.ServiceUnavailableException;
 import com.crodrigo47.trelloBackend.model.User;
 import com.crodrigo47.trelloBackend.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.crodrigo47.trelloBackend.service.PasswordHashingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final Executor dbExecutor;
 
     public AuthController(UserRepository userRepository,
-                          BCryptPasswordEncoder passwordEncoder,
-                          JwtUtil jwtUtil) {
+                          PasswordHashingService passwordHashingService,
+                          JwtUtil jwtUtil,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor dbExecutor) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
+        this.dbExecutor = dbExecutor;
     }
 
+    // El hashing BCrypt se hace en un pool propio: el hilo del servlet queda libre mientras tanto.
+    // Lo que va a la BD después sigue en el executor de la aplicación, para no ocupar los hilos de BCrypt.
     @PostMapping("/login")
-    public AuthResponseDto login(@RequestBody User requestUser) {
-        User user = userRepository.findByUsername(requestUser.getUsername())
-                .orElseGet(() -> {
-                    User newUser = User.builder()
-                            .username(requestUser.getUsername())
-                            .password(passwordEncoder.encode(requestUser.getPassword()))
-                            .role(User.Role.USER)
-                            .build();
-                    return userRepository.save(newUser);
-                });
-
-        if (!passwordEncoder.matches(requestUser.getPassword(), user.getPassword())) {
-            throw new InvalidPasswordException("Usuario existente o contraseña incorrecta");
-        }
+    public CompletableFuture<AuthResponseDto> login(@RequestBody User requestUser) {
+        String rawPassword = requestUser.getPassword();
 
-        String token = jwtUtil.generateToken(new com.crodrigo47.trelloBackend.config.CustomUserDetails(user));
+        CompletableFuture<User> authenticated = userRepository.findByUsername(requestUser.getUsername())
+                .map(user -> passwordHashingService.matches(rawPassword, user.getPassword())
+                        .thenApply(matches -> {
+                            if (!matches) {
+                                throw new InvalidPasswordException("Usuario existente o contraseña incorrecta");
+                            }
+                            upgradeHashIfNeeded(user, rawPassword);
+                            return user;
+                        }))
+                .orElseGet(() -> passwordHashingService.encode(rawPassword)
+                        .thenApplyAsync(encoded -> userRepository.save(User.builder()
+                                .username(requestUser.getUsername())
+                                .password(encoded)
+                                .role(User.Role.USER)
+                                .build()), dbExecutor));
 
-        return new AuthResponseDto(user.getId(), user.getUsername(), token);
+        return authenticated.thenApply(user -> {
+            String token = jwtUtil.generateToken(new CustomUserDetails(user));
+            return new AuthResponseDto(user.getId(), user.getUsername(), token);
+        });
+    }
+
+    /**
+     * Si el hash guardado tiene un coste distinto del configurado, se recalcula en segundo plano
+     * sin retrasar la respuesta. Solo se guarda si la contraseña no ha cambiado entretanto.
+     */
+    private void upgradeHashIfNeeded(User user, String rawPassword) {
+        String oldHash = user.getPassword();
+        if (!passwordHashingService.needsRehash(oldHash)) {
+            return;
+        }
+        try {
+            passwordHashingService.encode(rawPassword)
+                    .thenAcceptAsync(newHash -> userRepository.updatePasswordIfUnchanged(user.getId(), oldHash, newHash),
+                            dbExecutor)
+                    .exceptionally(e -> {
+                        logger.warn("Password rehash failed for user {}: {}", user.getId(), e.getMessage());
+                        return null;
+                    });
+        } catch (ServiceUnavailableException e) {
+            // Pool lleno: se volverá a intentar en el próximo login
+            logger.debug("Skipping password rehash for user {}: hashing pool is full", user.getId());
+        }
     }
 
 }
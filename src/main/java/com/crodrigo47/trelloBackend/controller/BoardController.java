@@ -1,19 +1,27 @@
 package com.crodrigo47.trelloBackend.controller;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.security.Principal;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.crodrigo47.trelloBackend.config.CurrentUser;
+import com.crodrigo47.trelloBackend.dto.BoardChangesDto;
 import com.crodrigo47.trelloBackend.dto.BoardDto;
+import com.crodrigo47.trelloBackend.dto.BoardSnapshotDto;
 import com.crodrigo47.trelloBackend.dto.DtoMapper;
+import com.crodrigo47.trelloBackend.dto.TaskCreatedDto;
 import com.crodrigo47.trelloBackend.dto.TaskDto;
 import com.crodrigo47.trelloBackend.dto.UserDto;
-import com.crodrigo47.trelloBackend.exception.UserNotFoundException;
 import com.crodrigo47.trelloBackend.model.Board;
 import com.crodrigo47.trelloBackend.model.Task;
 import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.service.BoardEventBroadcaster;
 import com.crodrigo47.trelloBackend.service.BoardService;
-import com.crodrigo47.trelloBackend.service.UserService;
+import com.crodrigo47.trelloBackend.service.BoardSyncService;
 
+import java.util.Comparator;
 import java.util.List;
 
 @RestController
@@ -21,45 +29,46 @@ import java.util.List;
 public class BoardController {
 
     private final BoardService boardService;
-    private final UserService userService;
+    private final BoardSyncService boardSyncService;
+    private final BoardEventBroadcaster boardEvents;
 
-    public BoardController(BoardService boardService, UserService userService) {
+    public BoardController(BoardService boardService, BoardSyncService boardSyncService,
+                           BoardEventBroadcaster boardEvents) {
         this.boardService = boardService;
-        this.userService = userService;
+        this.boardSyncService = boardSyncService;
+        this.boardEvents = boardEvents;
     }
 
     @GetMapping
-    public List<BoardDto> getAllBoards(Principal principal,
+    public List<BoardDto> getAllBoards(@CurrentUser User currentUser,
                                        @RequestParam(required = false) String name) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
-        List<Board> boards = (name != null && !name.isBlank())
-                ? boardService.searchBoardsByName(currentUser, name)
-                : boardService.getAllBoardsForCurrentUser(currentUser);
-
-        return boards.stream()
-                .map(DtoMapper::toBoardDto)
-                .toList();
+        return boardService.getBoardDtosForCurrentUser(currentUser, name);
     }
 
+    // ETag con el contador de cambios del board: If-None-Match vigente -> 304 sin cargar el board
     @GetMapping("/{id}")
-    public BoardDto getBoardById(@PathVariable Long id, Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
+    public BoardDto getBoardById(@PathVariable Long id, @CurrentUser User currentUser, WebRequest request) {
+        if (request.checkNotModified(boardService.getBoardEtag(id, currentUser))) {
+            return null;
+        }
         Board board = boardService.getBoardById(id, currentUser);
         return DtoMapper.toBoardDto(board);
     }
 
-    @PostMapping
-    public BoardDto createBoard(@RequestBody Board board, Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
+    // Board, miembros y tareas en una sola llamada; mismo ETag que el board (más el filtro)
+    @GetMapping("/{id}/snapshot")
+    public BoardSnapshotDto getBoardSnapshot(@PathVariable Long id,
+                                             @CurrentUser User currentUser,
+                                             @RequestParam(required = false) Task.Status status,
+                                             WebRequest request) {
+        if (request.checkNotModified(boardService.getSnapshotEtag(id, currentUser, status))) {
+            return null;
+        }
+        return boardService.getBoardSnapshot(id, currentUser, status);
+    }
 
+    @PostMapping
+    public BoardDto createBoard(@RequestBody Board board, @CurrentUser User currentUser) {
         Board created = boardService.createBoard(board, currentUser);
         return DtoMapper.toBoardDto(created);
     }
@@ -67,33 +76,21 @@ public class BoardController {
     @PutMapping("/{id}")
     public BoardDto updateBoard(@PathVariable Long id,
                                 @RequestBody Board board,
-                                Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
+                                @CurrentUser User currentUser) {
         board.setId(id);
         Board updated = boardService.updateBoard(board, currentUser);
         return DtoMapper.toBoardDto(updated);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteBoard(@PathVariable Long id, Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
+    public void deleteBoard(@PathVariable Long id, @CurrentUser User currentUser) {
         boardService.deleteBoard(id, currentUser);
     }
 
     @PostMapping("/{boardId}/users/{userId}")
     public BoardDto addUserToBoard(@PathVariable Long boardId,
                                    @PathVariable Long userId,
-                                   Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
+                                   @CurrentUser User currentUser) {
         Board updated = boardService.addUserToBoard(boardId, userId, currentUser);
         return DtoMapper.toBoardDto(updated);
     }
@@ -101,57 +98,66 @@ public class BoardController {
     @DeleteMapping("/{boardId}/users/{userId}")
     public void removeUserFromBoard(@PathVariable Long boardId,
                                     @PathVariable Long userId,
-                                    Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
+                                    @CurrentUser User currentUser) {
         boardService.removeUserFromBoard(boardId, userId, currentUser);
     }
 
     @PostMapping("/{boardId}/tasks")
-    public BoardDto addTaskToBoard(@PathVariable Long boardId,
-                                   @RequestBody Task task,
-                                   Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
-        Board updated = boardService.addTaskToBoard(boardId, task, currentUser);
-        return DtoMapper.toBoardDto(updated);
+    public TaskCreatedDto addTaskToBoard(@PathVariable Long boardId,
+                                         @RequestBody Task task,
+                                         @CurrentUser User currentUser) {
+        return boardService.addTaskWithBoardVersion(boardId, task, currentUser);
+    }
+
+    @PostMapping("/{boardId}/tasks:batch")
+    public List<Long> addTasksToBoard(@PathVariable Long boardId,
+                                      @RequestBody List<Task> tasks,
+                                      @CurrentUser User currentUser) {
+        return boardService.addTasksToBoard(boardId, tasks, currentUser);
     }
 
     @DeleteMapping("/{boardId}/tasks/{taskId}")
     public void removeTaskFromBoard(@PathVariable Long boardId,
                                     @PathVariable Long taskId,
-                                    Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
+                                    @CurrentUser User currentUser) {
         boardService.removeTaskFromBoard(boardId, taskId, currentUser);
     }
 
     @GetMapping("/{boardId}/tasks")
-    public List<TaskDto> getTasksFromBoard(@PathVariable Long boardId, Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
-        return boardService.getTasksFromBoard(boardId, currentUser)
-                .stream()
+    public ResponseEntity<List<TaskDto>> getTasksFromBoard(@PathVariable Long boardId,
+                                                           @CurrentUser User currentUser,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           WebRequest request) {
+        if (request.checkNotModified(boardService.getTasksEtag(boardId, currentUser, cursor, limit))) {
+            return null;
+        }
+        return boardService.getTasksFromBoard(boardId, currentUser, cursor, limit)
                 .map(DtoMapper::toTaskDto)
-                .toList();
+                .toResponseEntity();
     }
 
-    @GetMapping("/{boardId}/users")
-    public List<UserDto> getUsersFromBoard(@PathVariable Long boardId, Principal principal) {
-        String username = principal != null ? principal.getName() : null;
-        User currentUser = userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
+    // Solo lo que ha cambiado desde 'since' (el 'watermark' de la respuesta anterior)
+    @GetMapping("/{boardId}/changes")
+    public BoardChangesDto getBoardChanges(@PathVariable Long boardId,
+                                           @CurrentUser User currentUser,
+                                           @RequestParam(required = false) String since,
+                                           @RequestParam(required = false) Integer limit) {
+        return boardSyncService.getChangesSince(boardId, currentUser, since, limit);
+    }
 
+    // Eventos en vivo del board (SSE); al reconectar, ponerse al día con /changes.
+    // El acceso se comprueba después del alta (ver BoardEventBroadcaster.subscribe)
+    @GetMapping(path = "/{boardId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToBoardEvents(@PathVariable Long boardId, @CurrentUser User currentUser) {
+        return boardEvents.subscribe(boardId, currentUser.getId(), () -> boardService.checkCanView(boardId, currentUser));
+    }
+
+    @GetMapping("/{boardId}/users")
+    public List<UserDto> getUsersFromBoard(@PathVariable Long boardId, @CurrentUser User currentUser) {
         return boardService.getUsersFromBoard(boardId, currentUser)
                 .stream()
+                .sorted(Comparator.comparing(User::getId, Comparator.nullsLast(Comparator.naturalOrder())))
                 .map(DtoMapper::toUserDto)
                 .toList();
     }
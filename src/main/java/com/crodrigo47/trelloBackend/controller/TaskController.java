@@ -1,9 +1,11 @@
 package com.crodrigo47.trelloBackend.controller;
 
 import java.util.List;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.crodrigo47.trelloBackend.config.CurrentUser;
 import com.crodrigo47.trelloBackend.dto.DtoMapper;
 import com.crodrigo47.trelloBackend.dto.TaskDto;
 import com.crodrigo47.trelloBackend.dto.UserDto;
@@ -25,23 +27,21 @@ public class TaskController {
         this.userService = userService;
     }
 
-    private User resolveCurrentUser(String username) {
-        return userService.getUserByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-    }
-
+    // ETag con versión y updatedAt: If-None-Match vigente -> 304 sin cargar la tarea
     @GetMapping("/{id}")
     public TaskDto getTaskById(@PathVariable Long id,
-                               @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
+                               @CurrentUser User currentUser,
+                               WebRequest request) {
+        if (request.checkNotModified(taskService.getTaskEtag(id, currentUser))) {
+            return null;
+        }
         Task task = taskService.getTaskById(id, currentUser);
         return DtoMapper.toTaskDto(task);
     }
 
     @PostMapping
     public TaskDto createTask(@RequestBody Task task,
-                              @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
+                              @CurrentUser User currentUser) {
         Task created = taskService.createTask(task, currentUser);
         return DtoMapper.toTaskDto(created);
     }
@@ -49,8 +49,7 @@ public class TaskController {
     @PutMapping("/{id}")
     public TaskDto updateTask(@PathVariable Long id,
                               @RequestBody Task task,
-                              @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
+                              @CurrentUser User currentUser) {
         task.setId(id);
         Task updated = taskService.updateTask(task, currentUser);
         return DtoMapper.toTaskDto(updated);
@@ -58,17 +57,14 @@ public class TaskController {
 
     @DeleteMapping("/{id}")
     public void deleteTask(@PathVariable Long id,
-                           @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
+                           @CurrentUser User currentUser) {
         taskService.deleteTask(id, currentUser);
     }
 
     @PostMapping("/{taskId}/users/{userId}")
     public TaskDto assignUser(@PathVariable Long taskId,
                               @PathVariable Long userId,
-                              @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
-
+                              @CurrentUser User currentUser) {
         User assignee = userService.getUserById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User " + userId + " not found"));
 
@@ -78,16 +74,14 @@ public class TaskController {
 
     @DeleteMapping("/{taskId}/users")
     public TaskDto unassignUser(@PathVariable Long taskId,
-                                @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
+                                @CurrentUser User currentUser) {
         Task task = taskService.unassignTaskFromUser(taskId, currentUser);
         return DtoMapper.toTaskDto(task);
     }
 
     @GetMapping("/{taskId}/users")
     public UserDto getUserAssigned(@PathVariable Long taskId,
-                                   @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
+                                   @CurrentUser User currentUser) {
         Task task = taskService.getTaskById(taskId, currentUser);
         User assigned = task.getAssignedTo();
         if (assigned == null) {
@@ -97,19 +91,18 @@ public class TaskController {
     }
 
     @GetMapping("/board/{boardId}")
-    public List<TaskDto> getTasksByBoard(@PathVariable Long boardId,
-                                         @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
-        return taskService.getTasksByBoard(boardId, currentUser.getId())
-                .stream()
+    public ResponseEntity<List<TaskDto>> getTasksByBoard(@PathVariable Long boardId,
+                                                         @CurrentUser User currentUser,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit) {
+        return taskService.getTasksByBoard(boardId, currentUser.getId(), cursor, limit)
                 .map(DtoMapper::toTaskDto)
-                .toList();
+                .toResponseEntity();
     }
 
     @GetMapping("/user/{userId}")
     public List<TaskDto> getTasksByUser(@PathVariable Long userId,
-                                        @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
+                                        @CurrentUser User currentUser) {
         return taskService.getTasksByUser(userId, currentUser.getId())
                 .stream()
                 .map(DtoMapper::toTaskDto)
@@ -119,8 +112,7 @@ public class TaskController {
     @GetMapping("/status/{status}/board/{boardId}")
     public List<TaskDto> getTasksByStatus(@PathVariable Task.Status status,
                                           @PathVariable Long boardId,
-                                          @AuthenticationPrincipal String username) {
-        User currentUser = resolveCurrentUser(username);
+                                          @CurrentUser User currentUser) {
         return taskService.getTasksByStatus(boardId, status, currentUser.getId())
                 .stream()
                 .map(DtoMapper::toTaskDto)
@@ -1,10 +1,14 @@
 package com.crodrigo47.trelloBackend.controller;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import com.crodrigo47.trelloBackend.config.CurrentUser;
+import com.crodrigo47.trelloBackend.dto.AccountDeletionDto;
 import com.crodrigo47.trelloBackend.dto.DtoMapper;
 import com.crodrigo47.trelloBackend.dto.UserDto;
 import com.crodrigo47.trelloBackend.dto.UserSearchDto;
@@ -12,8 +16,11 @@ import com.crodrigo47.trelloBackend.exception.InvalidPasswordException;
 import com.crodrigo47.trelloBackend.exception.UserNotFoundException;
 import com.crodrigo47.trelloBackend.model.User;
 import com.crodrigo47.trelloBackend.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.security.Principal;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -23,32 +30,55 @@ public class UserController {
 
     private final BCryptPasswordEncoder passwordEncoder;
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserService userService, BCryptPasswordEncoder passwordEncoder) {
+    public UserController(UserService userService, BCryptPasswordEncoder passwordEncoder, ObjectMapper objectMapper) {
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
     }
 
-    // Solo ADMIN puede listar todos los usuarios
+    // Los endpoints con acceso de ADMIN leen el rol de la BD (verified): el del token puede estar desfasado
+
+    // Solo ADMIN puede listar todos los usuarios (paginado; siguiente página en X-Next-Cursor)
     @GetMapping
-    public List<UserDto> getAllUsers(Principal principal) {
-        User current = userService.getUserByUsername(principal.getName())
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
+    public ResponseEntity<List<UserDto>> getAllUsers(@CurrentUser(verified = true) User current,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit) {
+        requireAdmin(current);
+        return userService.getUsersPage(cursor, limit).toResponseEntity();
+    }
 
+    // Solo ADMIN: todos los usuarios en un único array JSON escrito según se leen de la BD
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(@CurrentUser(verified = true) User current) {
+        requireAdmin(current);
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.writeStartArray();
+                userService.streamAllUsers(user -> {
+                    try {
+                        generator.writeObject(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private static void requireAdmin(User current) {
         if (current.getRole() != User.Role.ADMIN) {
             throw new AccessDeniedException("Only ADMIN can access all users");
         }
-
-        return userService.getAllUsers().stream()
-                .map(DtoMapper::toUserDto)
-                .toList();
     }
 
     // Obtener un usuario por ID (solo para sí mismo o ADMIN)
     @GetMapping("/{id}")
-    public UserDto getUserById(@PathVariable Long id, Principal principal) {
-        User current = userService.getUserByUsername(principal.getName())
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
+    public UserDto getUserById(@PathVariable Long id, @CurrentUser(verified = true) User current) {
 
         User user = userService.getUserById(id)
                 .orElseThrow(() -> new UserNotFoundException("User id " + id + " not found"));
@@ -64,12 +94,8 @@ public class UserController {
     public List<UserSearchDto> searchUsers(
             @RequestParam("username") String prefix,
             @RequestParam(value = "limit", required = false, defaultValue = "10") int limit,
-            @AuthenticationPrincipal String username // para validar que hay un user autenticado
+            @CurrentUser User current // para validar que hay un user autenticado
     ) {
-        // opcional: validar que el caller existe
-        userService.getUserByUsername(username)
-            .orElseThrow(() -> new UserNotFoundException("Current user not found"));
-
         // delegar al service
         return userService.searchUsersByPrefix(prefix, limit);
     }
@@ -79,10 +105,8 @@ public class UserController {
     public UserDto updateUser(
             @PathVariable Long id,
             @RequestBody Map<String, String> body,
-            Principal principal
+            @CurrentUser(verified = true) User current
     ) {
-        User current = userService.getUserByUsername(principal.getName())
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
 
         User user = userService.getUserById(id)
                 .orElseThrow(() -> new UserNotFoundException("User id " + id + " not found"));
@@ -104,16 +128,38 @@ public class UserController {
         return DtoMapper.toUserDto(userService.updateUser(user));
     }
 
-    // Eliminar la propia cuenta
+    // Eliminar la propia cuenta: 202 y el borrado sigue en segundo plano (progreso en /users/{id}/deletion)
     @DeleteMapping("/{id}")
-    public void deleteUser(@PathVariable Long id, Principal principal) {
-        User current = userService.getUserByUsername(principal.getName())
-                .orElseThrow(() -> new UserNotFoundException("Current user not found"));
+    public ResponseEntity<AccountDeletionDto> deleteUser(@PathVariable Long id, @CurrentUser(verified = true) User current) {
 
         if (!current.getId().equals(id)) {
             throw new AccessDeniedException("You can only delete your own account");
         }
 
-        userService.deleteUser(id);
+        return ResponseEntity.accepted().body(userService.deleteUser(id));
+    }
+
+    /**
+     * Progreso del borrado de una cuenta (solo para sí mismo o ADMIN).
+     * Tras DONE la fila del usuario ya no existe: el dueño se identifica con el id del token y se
+     * autoriza contra la fila de account_deletion, sin cargar el User. El ADMIN sí se lee de la BD.
+     */
+    @GetMapping("/{id}/deletion")
+    public AccountDeletionDto getAccountDeletion(@PathVariable Long id, @CurrentUser User current) {
+
+        boolean own = current.getId() != null && current.getId().equals(id);
+        if (!own && !isVerifiedAdmin(current)) {
+            throw new AccessDeniedException("You can only see your own account deletion");
+        }
+
+        return userService.getAccountDeletion(id)
+                .orElseThrow(() -> new UserNotFoundException("No deletion requested for user id " + id));
+    }
+
+    // El rol del token puede estar desfasado: se comprueba con el usuario guardado
+    private boolean isVerifiedAdmin(User current) {
+        return current.getId() != null && userService.getUserById(current.getId())
+                .map(user -> user.getRole() == User.Role.ADMIN)
+                .orElse(false);
     }
 }
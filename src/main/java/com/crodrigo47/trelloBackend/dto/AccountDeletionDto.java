@@ -0,0 +1,15 @@
+package com.crodrigo47.trelloBackend.dto;
+
+import java.time.LocalDateTime;
+
+import com.crodrigo47.trelloBackend.model.AccountDeletion.Phase;
+
+public record AccountDeletionDto(
+    Long userId,
+    Phase phase,
+    boolean done,
+    long processedRows,
+    LocalDateTime requestedAt,
+    LocalDateTime updatedAt,
+    LocalDateTime finishedAt
+) {}
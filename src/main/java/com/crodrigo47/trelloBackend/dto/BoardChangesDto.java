@@ -0,0 +1,15 @@
+package com.crodrigo47.trelloBackend.dto;
+
+import java.util.List;
+
+/**
+ * Respuesta de GET /boards/{boardId}/changes.
+ * 'watermark' se manda como 'since' en la siguiente llamada; con 'hasMore' hay más cambios
+ * pendientes y se puede pedir la siguiente tanda sin esperar.
+ */
+public record BoardChangesDto(
+    List<TaskDto> tasks,
+    List<Long> deletedTaskIds,
+    String watermark,
+    boolean hasMore
+) {}
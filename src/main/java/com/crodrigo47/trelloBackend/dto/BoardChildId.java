@@ -0,0 +1,7 @@
+package com.crodrigo47.trelloBackend.dto;
+
+// Par (board, hijo) para cargar en bloque los ids de miembros o tareas de varios boards
+public record BoardChildId(
+    Long boardId,
+    Long childId
+) {}
@@ -8,5 +8,6 @@ public record BoardDto(
     String description,
     Set<Long> userIds,
     Set<Long> taskIds,
-    Long createdById
+    Long createdById,
+    Long version
 ) {}
@@ -0,0 +1,29 @@
+package com.crodrigo47.trelloBackend.dto;
+
+/**
+ * Evento de GET /boards/{boardId}/events (ver BoardEventBroadcaster).
+ * 'task' viene en las altas y modificaciones de tareas; en el resto solo van los ids.
+ * 'userId' es el miembro afectado en MEMBER_* y el asignado de la tarea en TASK_*.
+ */
+public record BoardEventDto(
+    Type type,
+    Long boardId,
+    Long taskId,
+    Long userId,
+    TaskDto task
+) {
+
+    public enum Type {
+        TASK_CREATED,
+        TASK_UPDATED,
+        TASK_DELETED,
+        TASK_ASSIGNED,
+        TASK_UNASSIGNED,
+        MEMBER_ADDED,
+        MEMBER_REMOVED,
+        BOARD_UPDATED,
+        BOARD_DELETED,
+        // Se han perdido eventos (cliente lento, alta masiva): pedir GET /boards/{id}/changes
+        RESYNC
+    }
+}
@@ -0,0 +1,7 @@
+package com.crodrigo47.trelloBackend.dto;
+
+// Miembro de un board en la vista del board: lo justo para pintarlo y asignarle tareas
+public record BoardMemberDto(
+    Long id,
+    String username
+) {}
@@ -0,0 +1,10 @@
+package com.crodrigo47.trelloBackend.dto;
+
+// Columnas propias de un board, sin cargar colecciones ni el usuario creador
+public record BoardRow(
+    Long id,
+    String name,
+    String description,
+    Long createdById,
+    Long version
+) {}
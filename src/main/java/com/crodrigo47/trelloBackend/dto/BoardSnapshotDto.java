@@ -0,0 +1,17 @@
+package com.crodrigo47.trelloBackend.dto;
+
+import java.util.List;
+
+/**
+ * Respuesta de GET /boards/{id}/snapshot: lo que antes eran GET /boards/{id},
+ * /boards/{id}/users y /boards/{id}/tasks. Miembros y tareas ordenados por id.
+ */
+public record BoardSnapshotDto(
+    Long id,
+    String name,
+    String description,
+    Long createdById,
+    Long version,
+    List<BoardMemberDto> members,
+    List<TaskDto> tasks
+) {}
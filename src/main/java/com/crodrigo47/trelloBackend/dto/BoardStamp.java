@@ -0,0 +1,8 @@
+package com.crodrigo47.trelloBackend.dto;
+
+// Lo justo para el ETag de un board y para autorizar, sin cargar el board ni sus colecciones
+public record BoardStamp(
+    Long id,
+    long changeCount,
+    Long createdById
+) {}
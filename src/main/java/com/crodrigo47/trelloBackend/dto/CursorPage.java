@@ -0,0 +1,84 @@
+package com.crodrigo47.trelloBackend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.springframework.http.ResponseEntity;
+
+import com.crodrigo47.trelloBackend.exception.InvalidCursorException;
+
+/**
+ * Página de un listado por keyset (seek): los elementos vienen ordenados por id ascendente
+ * y 'nextCursor' (opaco para el cliente) codifica el último id devuelto, o es null si no hay más.
+ * - Las consultas piden 'limit + 1' filas: la sobrante solo indica que hay página siguiente.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String PREFIX = "id:";
+
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, ToLongFunction<T> idOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(items, encode(idOf.applyAsLong(items.get(limit - 1))));
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+
+    // El body sigue siendo un array JSON; el cursor de la página siguiente va en una cabecera
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+
+    // Sin cursor ni limit el cliente no pagina: listado completo, como antes de haber cursores
+    public static boolean isUnpaged(String cursor, Integer limit) {
+        return limit == null && (cursor == null || cursor.isBlank());
+    }
+
+    // Tamaño de página pedido por el cliente, acotado a [1, MAX_LIMIT]
+    public static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Id a partir del cual continuar (0 = primera página)
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            long id = Long.parseLong(value.substring(PREFIX.length()));
+            if (id < 0) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.crodrigo47.trelloBackend.dto;
 
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.crodrigo47.trelloBackend.model.AccountDeletion;
 import com.crodrigo47.trelloBackend.model.Board;
 import com.crodrigo47.trelloBackend.model.Task;
 import com.crodrigo47.trelloBackend.model.User;
@@ -15,7 +17,20 @@ public class DtoMapper {
             board.getDescription(),
             board.getUsers().stream().map(User::getId).collect(Collectors.toSet()),
             board.getTasks().stream().map(Task::getId).collect(Collectors.toSet()),
-            board.getCreatedBy() != null ? board.getCreatedBy().getId() : null
+            board.getCreatedBy() != null ? board.getCreatedBy().getId() : null,
+            board.getVersion()
+        );
+    }
+
+    public static BoardDto toBoardDto(BoardRow row, Set<Long> userIds, Set<Long> taskIds) {
+        return new BoardDto(
+            row.id(),
+            row.name(),
+            row.description(),
+            userIds,
+            taskIds,
+            row.createdById(),
+            row.version()
         );
     }
 
@@ -29,6 +44,16 @@ public class DtoMapper {
         );
     }
 
+    public static UserDto toUserDto(UserRow row, Set<Long> boardIds, Set<Long> taskIds) {
+        return new UserDto(
+            row.id(),
+            row.username(),
+            row.role(),
+            boardIds,
+            taskIds
+        );
+    }
+
     public static TaskDto toTaskDto(Task task) {
         return new TaskDto(
             task.getId(),
@@ -39,7 +64,20 @@ public class DtoMapper {
             task.getCreatedBy() != null ? task.getCreatedBy().getId() : null,
             task.getBoard() != null ? task.getBoard().getId() : null,
             task.getCreatedAt(),
-            task.getUpdatedAt()
+            task.getUpdatedAt(),
+            task.getVersion()
+        );
+    }
+
+    public static AccountDeletionDto toAccountDeletionDto(AccountDeletion deletion) {
+        return new AccountDeletionDto(
+            deletion.getUserId(),
+            deletion.getPhase(),
+            deletion.getPhase() == AccountDeletion.Phase.DONE,
+            deletion.getProcessedRows(),
+            deletion.getRequestedAt(),
+            deletion.getUpdatedAt(),
+            deletion.getFinishedAt()
         );
     }
 }
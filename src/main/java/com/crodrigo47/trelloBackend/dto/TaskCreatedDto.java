@@ -0,0 +1,8 @@
+package com.crodrigo47.trelloBackend.dto;
+
+// Respuesta de POST /boards/{id}/tasks: la tarea nueva y el contador de cambios del board tras el alta
+// (el mismo que va en su ETag), para que el cliente no tenga que volver a pedir el board
+public record TaskCreatedDto(
+    TaskDto task,
+    long boardVersion
+) {}
@@ -13,5 +13,6 @@ public record TaskDto(
     Long createdById,
     Long boardId,
     LocalDateTime createdAt,
-    LocalDateTime updatedAt
+    LocalDateTime updatedAt,
+    Long version
 ) {}
@@ -0,0 +1,13 @@
+package com.crodrigo47.trelloBackend.dto;
+
+import java.time.LocalDateTime;
+
+// Lo justo para el ETag de una tarea y para autorizar, sin cargar la tarea ni sus relaciones
+public record TaskStamp(
+    Long id,
+    Long version,
+    LocalDateTime updatedAt,
+    Long boardId,
+    Long boardChangeCount,
+    Long boardCreatorId
+) {}
@@ -0,0 +1,7 @@
+package com.crodrigo47.trelloBackend.dto;
+
+// Par (usuario, hijo) para cargar en bloque los ids de boards o tareas de varios usuarios
+public record UserChildId(
+    Long userId,
+    Long childId
+) {}
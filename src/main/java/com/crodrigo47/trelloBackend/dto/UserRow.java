@@ -0,0 +1,10 @@
+package com.crodrigo47.trelloBackend.dto;
+
+import com.crodrigo47.trelloBackend.model.User.Role;
+
+// Columnas propias de un usuario, sin password ni colecciones
+public record UserRow(
+    Long id,
+    String username,
+    Role role
+) {}
@@ -0,0 +1,61 @@
+package com.crodrigo47.trelloBackend.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Comparator;
+
+import com.crodrigo47.trelloBackend.exception.InvalidCursorException;
+
+/**
+ * Posición (instante, id de tarea) hasta la que un cliente ya tiene los cambios de un board.
+ * Se ordena primero por instante y luego por id, igual que las consultas de cambios.
+ * Para el cliente es opaca, como los cursores de CursorPage.
+ */
+public record Watermark(LocalDateTime at, long taskId) implements Comparable<Watermark> {
+
+    // Antes de cualquier cambio: sincronización completa
+    public static final Watermark START = new Watermark(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private static final String PREFIX = "wm:";
+    private static final Comparator<Watermark> ORDER =
+            Comparator.comparing(Watermark::at).thenComparingLong(Watermark::taskId);
+
+    @Override
+    public int compareTo(Watermark other) {
+        return ORDER.compare(this, other);
+    }
+
+    // Instante en microsegundos, la precisión de las columnas TIMESTAMP(6)
+    public String encode() {
+        long micros = at.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + at.getNano() / 1_000;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + micros + ":" + taskId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null si no viene marca
+    public static Watermark decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.startsWith(PREFIX) ? decoded.substring(PREFIX.length()).split(":") : new String[0];
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Invalid watermark");
+            }
+            long micros = Long.parseLong(parts[0]);
+            long taskId = Long.parseLong(parts[1]);
+            if (micros < 0 || taskId < 0) {
+                throw new InvalidCursorException("Invalid watermark");
+            }
+            LocalDateTime at = LocalDateTime.ofEpochSecond(
+                    micros / 1_000_000, (int) (micros % 1_000_000) * 1_000, ZoneOffset.UTC);
+            return new Watermark(at, taskId);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException("Invalid watermark");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.crodrigo47.trelloBackend.exception;
+
+// 409: otra escritura ganó la carrera. 'currentVersion' es la versión que hay ahora (null si ya no existe)
+public class ConcurrentUpdateException extends RuntimeException {
+
+    private final Long currentVersion;
+
+    public ConcurrentUpdateException(String msg, Long currentVersion) {
+        super(msg);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
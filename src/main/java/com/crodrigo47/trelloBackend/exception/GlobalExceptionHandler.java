@@ -1,5 +1,7 @@
 package com.crodrigo47.trelloBackend.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,6 +11,9 @@ import java.time.Instant;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Cabecera con la versión actual en los 409 de ConcurrentUpdateException
+    public static final String CURRENT_VERSION_HEADER = "X-Current-Version";
+
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUserNotFound(UserNotFoundException ex) {
         ErrorResponse body = new ErrorResponse(404, "Not Found", ex.getMessage(), Instant.now());
@@ -27,9 +32,53 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(404).body(body);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex){
+        ErrorResponse body = new ErrorResponse(400, "Bad Request", ex.getMessage(), Instant.now());
+        return ResponseEntity.status(400).body(body);
+    }
+
+    // La marca de sincronización es anterior a los tombstones guardados: hay que recargar el board
+    @ExceptionHandler(WatermarkExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleWatermarkExpired(WatermarkExpiredException ex){
+        ErrorResponse body = new ErrorResponse(410, "Gone", ex.getMessage(), Instant.now());
+        return ResponseEntity.status(410).body(body);
+    }
+
+    @ExceptionHandler(InvalidBatchException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBatch(InvalidBatchException ex){
+        ErrorResponse body = new ErrorResponse(400, "Bad Request", ex.getMessage(), Instant.now());
+        return ResponseEntity.status(400).body(body);
+    }
+
     @ExceptionHandler(InvalidPasswordException.class)
     public ResponseEntity<ErrorResponse> handleInvalidPassword(InvalidPasswordException ex){
         ErrorResponse body = new ErrorResponse(401, "Auth Required", ex.getMessage(), Instant.now());
         return ResponseEntity.status(401).body(body);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex){
+        ErrorResponse body = new ErrorResponse(503, "Service Unavailable", ex.getMessage(), Instant.now());
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(body);
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentUpdate(ConcurrentUpdateException ex){
+        ErrorResponse body = new ErrorResponse(409, "Conflict", ex.getMessage(), Instant.now());
+        var response = ResponseEntity.status(409);
+        if (ex.getCurrentVersion() != null) {
+            response.header(CURRENT_VERSION_HEADER, String.valueOf(ex.getCurrentVersion()));
+        }
+        return response.body(body);
+    }
+
+    // Operaciones sin reintento (p. ej. borrados) que chocan con otra escritura
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(OptimisticLockingFailureException ex){
+        ErrorResponse body = new ErrorResponse(409, "Conflict", "The resource was modified concurrently", Instant.now());
+        return ResponseEntity.status(409).body(body);
+    }
 }
@@ -0,0 +1,7 @@
+package com.crodrigo47.trelloBackend.exception;
+
+public class InvalidBatchException extends RuntimeException{
+    public InvalidBatchException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.crodrigo47.trelloBackend.exception;
+
+public class InvalidCursorException extends RuntimeException{
+    public InvalidCursorException(String msg) {
+        super(msg);
+    }
+}
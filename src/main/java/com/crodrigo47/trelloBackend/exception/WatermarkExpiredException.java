@@ -0,0 +1,7 @@
+package com.crodrigo47.trelloBackend.exception;
+
+public class WatermarkExpiredException extends RuntimeException{
+    public WatermarkExpiredException(String msg) {
+        super(msg);
+    }
+}
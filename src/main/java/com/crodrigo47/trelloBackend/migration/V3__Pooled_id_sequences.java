@@ -0,0 +1,47 @@
+package com.crodrigo47.trelloBackend.migration;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Pasa los ids de IDENTITY a secuencias con incremento 50 (optimizador pooled de Hibernate),
+ * para que los INSERT puedan ir en lotes JDBC.
+ *
+ * En Java y no en SQL porque el valor inicial depende de los ids que ya haya en cada tabla,
+ * y eso no se puede escribir igual para Postgres y H2.
+ */
+public class V3__Pooled_id_sequences extends BaseJavaMigration {
+
+    // Debe coincidir con allocationSize de los @SequenceGenerator de las entidades
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final String[] TABLES = {"users", "board", "task"};
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                long maxId;
+                try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                    rs.next();
+                    maxId = rs.getLong(1);
+                }
+                // Con pooled, Hibernate usa [valor - 49, valor] para cada valor leído de la secuencia
+                // (salvo el 1 inicial), así que hay que dejar un bloque entero por encima del máximo
+                long start = maxId == 0 ? 1 : maxId + ALLOCATION_SIZE;
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + start
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+                // Sin IDENTITY: un INSERT sin id fallará en vez de chocar con ids ya repartidos
+                statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY"
+                        + (postgres ? " IF EXISTS" : ""));
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.crodrigo47.trelloBackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "account_deletion")
+public class AccountDeletion {
+
+    // Mismo id que el usuario; sin relación para que la fila sobreviva al borrado
+    @Id
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Phase phase;
+
+    @Column(nullable = false)
+    private long processedRows;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    // Nodo que procesa la petición y hasta cuándo (ver AccountDeletionRepository.claim)
+    private String lockedBy;
+
+    private LocalDateTime lockedUntil;
+
+    // En el orden en que se ejecutan (ver AccountDeletionService)
+    public enum Phase {
+        UNASSIGN_TASKS,
+        DELETE_BOARDS,
+        REASSIGN_CREATED_TASKS,
+        DELETE_REMAINING_TASKS,
+        REMOVE_MEMBERSHIPS,
+        DELETE_USER,
+        DONE;
+
+        public Phase next() {
+            return this == DONE ? DONE : values()[ordinal() + 1];
+        }
+    }
+}
@@ -14,12 +14,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_board_created_by", columnList = "created_by_id"))
 public class Board {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_seq")
+    @SequenceGenerator(name = "board_seq", sequenceName = "board_seq", allocationSize = 50)
     private Long id;
 
+    // Bloqueo optimista; también sube al cambiar 'users' (altas y bajas de miembros)
+    @Version
+    private Long version;
+
+    // Sube con cualquier cambio del board, sus miembros o sus tareas (ETag). Solo lo escribe
+    // BoardRepository.incrementChangeCount: fuera de INSERT/UPDATE para no pisarlo con un valor viejo
+    @Column(insertable = false, updatable = false)
+    private long changeCount;
+
     private String name;
     private String description;
 
@@ -32,7 +43,12 @@ public class Board {
     @JoinTable(
         name = "board_user",
         joinColumns = @JoinColumn(name = "board_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        indexes = {
+            @Index(name = "idx_board_user_board_user", columnList = "board_id, user_id"),
+            // Boards de un usuario (findByUsersId, membresía desde tareas)
+            @Index(name = "idx_board_user_user_board", columnList = "user_id, board_id")
+        }
     )
     @JsonIgnore
     @Builder.Default
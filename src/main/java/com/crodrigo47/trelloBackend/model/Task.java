@@ -11,12 +11,27 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = {
+    // Listados por board: filtro por estado y paginación por keyset (board_id, id)
+    @Index(name = "idx_task_board_status", columnList = "board_id, status"),
+    @Index(name = "idx_task_board_id", columnList = "board_id, id"),
+    // Sincronización incremental: cambios de un board por keyset (updated_at, id)
+    @Index(name = "idx_task_board_updated", columnList = "board_id, updated_at, id"),
+    @Index(name = "idx_task_assigned_to", columnList = "assigned_to_id"),
+    // Borrado de cuentas: tareas creadas por el usuario
+    @Index(name = "idx_task_created_by", columnList = "created_by_id")
+})
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
+    // Bloqueo optimista: dos ediciones sobre la misma versión no se pisan (ver OptimisticRetry)
+    @Version
+    private Long version;
+
     private String title;
     private String description;
 
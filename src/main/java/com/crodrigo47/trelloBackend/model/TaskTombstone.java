@@ -0,0 +1,29 @@
+package com.crodrigo47.trelloBackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Rastro de una tarea borrada para la sincronización incremental (ver BoardSyncService)
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "task_tombstone", indexes = {
+    @Index(name = "idx_task_tombstone_board_deleted", columnList = "board_id, deleted_at, task_id")
+})
+public class TaskTombstone {
+
+    // Mismo id que la tarea borrada; sin relaciones porque la tarea ya no existe
+    @Id
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Long boardId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,31 @@
+package com.crodrigo47.trelloBackend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.crodrigo47.trelloBackend.model.AccountDeletion;
+
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, Long> {
+
+    // Peticiones sin terminar, las más antiguas primero
+    @Query("SELECT d.userId FROM AccountDeletion d WHERE d.phase <> :done ORDER BY d.requestedAt")
+    List<Long> findUserIdsByPhaseNot(@Param("done") AccountDeletion.Phase done);
+
+    // Usuarios que aún pueden tener tokens vigentes: borrado sin terminar o terminado después de 'since'
+    @Query("SELECT d.userId FROM AccountDeletion d WHERE d.phase <> :done OR d.finishedAt > :since")
+    List<Long> findUserIdsWithLiveTokens(@Param("done") AccountDeletion.Phase done,
+                                         @Param("since") LocalDateTime since);
+
+    // Toma o renueva el lease: 1 si 'node' ya lo tenía, estaba libre o había caducado; 0 si es de otro nodo.
+    // El UPDATE bloquea la fila hasta el commit, así que dentro de esa transacción nadie más la procesa.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AccountDeletion d SET d.lockedBy = :node, d.lockedUntil = :until WHERE d.userId = :userId " +
+           "AND (d.lockedBy IS NULL OR d.lockedBy = :node OR d.lockedUntil < :now)")
+    int claim(@Param("userId") Long userId, @Param("node") String node,
+              @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+}
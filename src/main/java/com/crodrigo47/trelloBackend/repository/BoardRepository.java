@@ -1,12 +1,101 @@
 package com.crodrigo47.trelloBackend.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.crodrigo47.trelloBackend.dto.BoardChildId;
+import com.crodrigo47.trelloBackend.dto.BoardMemberDto;
+import com.crodrigo47.trelloBackend.dto.BoardRow;
+import com.crodrigo47.trelloBackend.dto.BoardStamp;
 import com.crodrigo47.trelloBackend.model.Board;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface BoardRepository extends JpaRepository<Board, Long> {
     List<Board> findByUsersId(Long userId);
     List<Board> findByUsersIdAndNameContainingIgnoreCase(Long userId, String name);
+
+    // Comprobación de membresía contra board_user sin cargar la colección 'users' del board
+    boolean existsByIdAndUsersId(Long boardId, Long userId);
+
+    // Solo los ids de los miembros, sin cargar las entidades User
+    @Query("select u.id from Board b join b.users u where b.id = :boardId")
+    List<Long> findMemberIdsById(@Param("boardId") Long boardId);
+
+    // Listado de boards sin entidades: filas + ids de miembros y tareas en tres consultas en total
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardRow(b.id, b.name, b.description, b.createdBy.id, b.version) " +
+           "FROM Board b JOIN b.users u WHERE u.id = :userId ORDER BY b.id")
+    List<BoardRow> findRowsByMemberId(@Param("userId") Long userId);
+
+    // 'name' llega escapado (LikePatterns.escape)
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardRow(b.id, b.name, b.description, b.createdBy.id, b.version) " +
+           "FROM Board b JOIN b.users u WHERE u.id = :userId " +
+           "AND LOWER(b.name) LIKE LOWER(CONCAT('%', :name, '%')) ESCAPE '\\' ORDER BY b.id")
+    List<BoardRow> findRowsByMemberIdAndName(@Param("userId") Long userId, @Param("name") String name);
+
+    // Vista de un board (BoardService.getBoardSnapshot): fila, miembros y tareas sin entidades
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardRow(b.id, b.name, b.description, b.createdBy.id, b.version) " +
+           "FROM Board b WHERE b.id = :id")
+    Optional<BoardRow> findRowById(@Param("id") Long id);
+
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardMemberDto(u.id, u.username) " +
+           "FROM Board b JOIN b.users u WHERE b.id = :boardId ORDER BY u.id")
+    List<BoardMemberDto> findMembersById(@Param("boardId") Long boardId);
+
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardChildId(b.id, u.id) " +
+           "FROM Board b JOIN b.users u WHERE b.id IN :boardIds")
+    List<BoardChildId> findMemberIdsByBoardIds(@Param("boardIds") Collection<Long> boardIds);
+
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardChildId(t.board.id, t.id) " +
+           "FROM Task t WHERE t.board.id IN :boardIds")
+    List<BoardChildId> findTaskIdsByBoardIds(@Param("boardIds") Collection<Long> boardIds);
+
+    // Versión actual, para el 409 cuando se agotan los reintentos
+    @Query("SELECT b.version FROM Board b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // ETag de GET /boards/{id} y de sus tareas
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardStamp(b.id, b.changeCount, c.id) " +
+           "FROM Board b LEFT JOIN b.createdBy c WHERE b.id = :id")
+    Optional<BoardStamp> findStampById(@Param("id") Long id);
+
+    @Query("SELECT b.changeCount FROM Board b WHERE b.id = :id")
+    Optional<Long> findChangeCountById(@Param("id") Long id);
+
+    // Cualquier escritura que cambie lo que devuelven esos GET sube el contador en su misma transacción.
+    // No toca 'version': no choca con las ediciones del board
+    @Modifying
+    @Query("UPDATE Board b SET b.changeCount = b.changeCount + 1 WHERE b.id = :boardId")
+    int incrementChangeCount(@Param("boardId") Long boardId);
+
+    @Modifying
+    @Query("UPDATE Board b SET b.changeCount = b.changeCount + 1 WHERE b.id IN :boardIds")
+    int incrementChangeCounts(@Param("boardIds") Collection<Long> boardIds);
+
+    // Borrado de boards por conjuntos (BoardDeleter); las tareas se borran antes.
+    // Hibernate borra también las filas de board_user (tabla de la colección 'users') en la misma operación.
+    // Vacía el contexto de persistencia: el Board cargado para autorizar ya no existe.
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Board b WHERE b.id = :boardId")
+    int deleteBoardById(@Param("boardId") Long boardId);
+
+    // Borrado de cuentas (AccountDeletionService): boards creados y membresías del usuario por tandas
+    @Query("SELECT b.id FROM Board b WHERE b.createdBy.id = :userId ORDER BY b.id")
+    List<Long> findIdsByCreatedById(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT b.id FROM Board b JOIN b.users u WHERE u.id = :userId ORDER BY b.id")
+    List<Long> findIdsByMemberId(@Param("userId") Long userId, Limit limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM board_user WHERE user_id = :userId AND board_id IN (:boardIds)", nativeQuery = true)
+    int deleteMemberships(@Param("userId") Long userId, @Param("boardIds") Collection<Long> boardIds);
+
+    boolean existsByCreatedById(Long userId);
+
+    boolean existsByUsersId(Long userId);
  }
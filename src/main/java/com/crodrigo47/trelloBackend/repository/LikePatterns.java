@@ -0,0 +1,15 @@
+package com.crodrigo47.trelloBackend.repository;
+
+/**
+ * Escapa el texto del usuario antes de usarlo en un LIKE: sin esto '%' y '_' actúan como comodines
+ * (buscar "%" devolvería todo). Las consultas que lo usan declaran ESCAPE '\'.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    public static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,14 +1,145 @@
 package com.crodrigo47.trelloBackend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.crodrigo47.trelloBackend.dto.BoardChildId;
+import com.crodrigo47.trelloBackend.dto.TaskDto;
+import com.crodrigo47.trelloBackend.dto.TaskStamp;
 import com.crodrigo47.trelloBackend.model.Task;
 
+/**
+ * Las consultas con membresía filtran por las FK de 'task' (board_id, assigned_to_id) y unen
+ * board_user con INNER JOIN: así usan los índices de Task y Board. Las versiones derivadas
+ * filtraban por board.id tras un LEFT JOIN y acababan recorriendo toda la tabla task.
+ */
 public interface TaskRepository extends JpaRepository<Task, Long> { 
-    List<Task> findByBoardIdAndBoardUsersId(Long boardId, Long userId);
-    List<Task> findByAssignedToIdAndBoardUsersId(Long userId, Long memberId);
-    List<Task> findByBoardIdAndStatusAndBoardUsersId(Long boardId, Task.Status status, Long userId);
+
+    @Query("SELECT t FROM Task t JOIN t.board b JOIN b.users u " +
+           "WHERE t.board.id = :boardId AND u.id = :userId")
+    List<Task> findByBoardIdAndBoardUsersId(@Param("boardId") Long boardId, @Param("userId") Long userId);
+
+    @Query("SELECT t FROM Task t JOIN t.board b JOIN b.users u " +
+           "WHERE t.assignedTo.id = :userId AND u.id = :memberId")
+    List<Task> findByAssignedToIdAndBoardUsersId(@Param("userId") Long userId, @Param("memberId") Long memberId);
+
+    @Query("SELECT t FROM Task t JOIN t.board b JOIN b.users u " +
+           "WHERE t.board.id = :boardId AND t.status = :status AND u.id = :userId")
+    List<Task> findByBoardIdAndStatusAndBoardUsersId(@Param("boardId") Long boardId,
+                                                     @Param("status") Task.Status status,
+                                                     @Param("userId") Long userId);
+
+    // Keyset: siguiente página a partir del último id visto, sin OFFSET
+    @Query("SELECT t FROM Task t WHERE t.board.id = :boardId AND t.id > :afterId ORDER BY t.id")
+    List<Task> findByBoardIdAndIdGreaterThanOrderByIdAsc(@Param("boardId") Long boardId,
+                                                         @Param("afterId") Long afterId,
+                                                         Limit limit);
+
+    @Query("SELECT t FROM Task t JOIN t.board b JOIN b.users u " +
+           "WHERE t.board.id = :boardId AND u.id = :userId AND t.id > :afterId ORDER BY t.id")
+    List<Task> findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(@Param("boardId") Long boardId,
+                                                                        @Param("userId") Long userId,
+                                                                        @Param("afterId") Long afterId,
+                                                                        Limit limit);
+
+    // Altas y modificaciones posteriores a la marca (updatedAt, id), en ese orden (BoardSyncService)
+    @Query("SELECT t FROM Task t WHERE t.board.id = :boardId " +
+           "AND (t.updatedAt > :at OR (t.updatedAt = :at AND t.id > :afterId)) " +
+           "ORDER BY t.updatedAt, t.id")
+    List<Task> findChangedAfter(@Param("boardId") Long boardId,
+                                @Param("at") LocalDateTime at,
+                                @Param("afterId") Long afterId,
+                                Limit limit);
+
+    // Tareas del board ya como DTO, sin cargar entidades (BoardService.getBoardSnapshot)
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.TaskDto(t.id, t.title, t.description, t.status, " +
+           "t.assignedTo.id, t.createdBy.id, t.board.id, t.createdAt, t.updatedAt, t.version) " +
+           "FROM Task t WHERE t.board.id = :boardId ORDER BY t.id")
+    List<TaskDto> findDtosByBoardId(@Param("boardId") Long boardId);
+
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.TaskDto(t.id, t.title, t.description, t.status, " +
+           "t.assignedTo.id, t.createdBy.id, t.board.id, t.createdAt, t.updatedAt, t.version) " +
+           "FROM Task t WHERE t.board.id = :boardId AND t.status = :status ORDER BY t.id")
+    List<TaskDto> findDtosByBoardIdAndStatus(@Param("boardId") Long boardId, @Param("status") Task.Status status);
+
+    // Creador de la tarea, solo si pertenece al board (vacío si no existe o es de otro board)
+    @Query("SELECT t.createdBy.id FROM Task t WHERE t.id = :taskId AND t.board.id = :boardId")
+    Optional<Long> findCreatorIdByIdAndBoardId(@Param("taskId") Long taskId, @Param("boardId") Long boardId);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id = :taskId AND t.board.id = :boardId")
+    int deleteByIdAndBoardId(@Param("taskId") Long taskId, @Param("boardId") Long boardId);
+
+    // Borrado de boards por conjuntos (BoardDeleter)
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.board.id = :boardId")
+    int deleteByBoardId(@Param("boardId") Long boardId);
+
+    // Una tanda de como mucho 'limit' tareas del board
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM task WHERE id IN " +
+                   "(SELECT id FROM task WHERE board_id = :boardId FETCH FIRST :limit ROWS ONLY)",
+           nativeQuery = true)
+    int deleteChunkByBoardId(@Param("boardId") Long boardId, @Param("limit") int limit);
+
+    // Versión actual, para el 409 cuando se agotan los reintentos
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // ETag de GET /tasks/{id}
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.TaskStamp(t.id, t.version, t.updatedAt, b.id, b.changeCount, c.id) " +
+           "FROM Task t LEFT JOIN t.board b LEFT JOIN b.createdBy c WHERE t.id = :id")
+    Optional<TaskStamp> findStampById(@Param("id") Long id);
+
+    // Borrado de cuentas (AccountDeletionService): primero se eligen las tareas de la tanda con su board
+    // (para tocar solo esos boards) y luego se actualizan por id.
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardChildId(b.id, t.id) " +
+           "FROM Task t LEFT JOIN t.board b WHERE t.assignedTo.id = :userId ORDER BY t.id")
+    List<BoardChildId> findChunkByAssignedToId(@Param("userId") Long userId, Limit limit);
+
+    // Tareas creadas por el usuario en boards ajenos: pasan al creador del board
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardChildId(b.id, t.id) " +
+           "FROM Task t JOIN t.board b WHERE t.createdBy.id = :userId " +
+           "AND b.createdBy.id IS NOT NULL AND b.createdBy.id <> :userId ORDER BY t.id")
+    List<BoardChildId> findChunkToReassignByCreatedById(@Param("userId") Long userId, Limit limit);
+
+    // Las que quedan tras reasignar: sin board o en boards sin creador
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.BoardChildId(b.id, t.id) " +
+           "FROM Task t LEFT JOIN t.board b WHERE t.createdBy.id = :userId ORDER BY t.id")
+    List<BoardChildId> findChunkByCreatedById(@Param("userId") Long userId, Limit limit);
+
+    // Suben la versión para que una edición concurrente con la fila anterior falle en vez de deshacer el cambio,
+    // y updated_at para que el cambio llegue a la sincronización incremental.
+    // La condición sobre el usuario se repite por si la tarea ha cambiado desde que se eligió.
+    @Modifying
+    @Query(value = "UPDATE task SET assigned_to_id = NULL, version = version + 1, updated_at = :now " +
+                   "WHERE id IN (:ids) AND assigned_to_id = :userId",
+           nativeQuery = true)
+    int unassignByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE task SET created_by_id = (SELECT b.created_by_id FROM board b WHERE b.id = task.board_id), " +
+                   "version = version + 1, updated_at = :now " +
+                   "WHERE id IN (:ids) AND created_by_id = :userId",
+           nativeQuery = true)
+    int reassignToBoardCreatorByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM task WHERE id IN (:ids) AND created_by_id = :userId", nativeQuery = true)
+    int deleteByIdsAndCreatedById(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    boolean existsByAssignedToId(Long userId);
+
+    boolean existsByCreatedById(Long userId);
 
 }
@@ -0,0 +1,38 @@
+package com.crodrigo47.trelloBackend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.crodrigo47.trelloBackend.model.TaskTombstone;
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    // INSERT directo: con el id ya asignado, save() haría antes un SELECT
+    @Modifying
+    @Query("INSERT INTO TaskTombstone (taskId, boardId, deletedAt) VALUES (:taskId, :boardId, :deletedAt)")
+    int insert(@Param("taskId") Long taskId, @Param("boardId") Long boardId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    // Keyset por (deletedAt, taskId), el mismo orden que TaskRepository.findChangedAfter
+    @Query("SELECT d FROM TaskTombstone d WHERE d.boardId = :boardId " +
+           "AND (d.deletedAt > :at OR (d.deletedAt = :at AND d.taskId > :afterId)) " +
+           "ORDER BY d.deletedAt, d.taskId")
+    List<TaskTombstone> findChangedAfter(@Param("boardId") Long boardId,
+                                         @Param("at") LocalDateTime at,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone d WHERE d.boardId = :boardId AND d.deletedAt < :before")
+    int deleteByBoardIdAndDeletedAtBefore(@Param("boardId") Long boardId, @Param("before") LocalDateTime before);
+
+    // Borrado de boards (BoardDeleter)
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM TaskTombstone d WHERE d.boardId = :boardId")
+    int deleteByBoardId(@Param("boardId") Long boardId);
+}
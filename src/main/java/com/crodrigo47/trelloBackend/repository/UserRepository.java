@@ -1,21 +1,66 @@
 package com.crodrigo47.trelloBackend.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.crodrigo47.trelloBackend.dto.UserChildId;
+import com.crodrigo47.trelloBackend.dto.UserRow;
 import com.crodrigo47.trelloBackend.model.User;
 
+import jakarta.persistence.QueryHint;
+
+import jakarta.transaction.Transactional;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     Optional<User> findByUsername(String username);
     List<User> findByUsernameContainingIgnoreCase(String username);
+
+    // Nombre tal y como está en la BD: sin flush previo, para compararlo con un User ya modificado
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT u.username FROM User u WHERE u.id = :id")
+    Optional<String> findStoredUsernameById(@Param("id") Long id);
+
+    // Solo actualiza si la contraseña no ha cambiado desde que se leyó (rehash tras login)
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+
+    // 'prefix' llega escapado (LikePatterns.escape)
     @Query("SELECT new com.crodrigo47.trelloBackend.dto.UserSearchDto(u.id, u.username) " +
-           "FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT(:prefix, '%'))")
+           "FROM User u WHERE LOWER(u.username) LIKE LOWER(CONCAT(:prefix, '%')) ESCAPE '\\'")
     List<com.crodrigo47.trelloBackend.dto.UserSearchDto> searchByUsernamePrefix(
         @Param("prefix") String prefix, Pageable pageable);
+
+    // Listado de administración: filas por keyset (id ascendente), sin entidades
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.UserRow(u.id, u.username, u.role) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserRow> findRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Cursor JDBC de solo avance: usar dentro de una transacción y cerrar el Stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.UserRow(u.id, u.username, u.role) FROM User u ORDER BY u.id")
+    Stream<UserRow> streamAllRows();
+
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.UserChildId(u.id, b.id) " +
+           "FROM User u JOIN u.boards b WHERE u.id IN :userIds")
+    List<UserChildId> findBoardIdsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT new com.crodrigo47.trelloBackend.dto.UserChildId(t.assignedTo.id, t.id) " +
+           "FROM Task t WHERE t.assignedTo.id IN :userIds")
+    List<UserChildId> findTaskIdsByUserIds(@Param("userIds") Collection<Long> userIds);
  }
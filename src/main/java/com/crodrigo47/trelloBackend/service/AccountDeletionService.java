@@ -0,0 +1,389 @@
+package com.crodrigo47.trelloBackend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crodrigo47.trelloBackend.dto.BoardChildId;
+import com.crodrigo47.trelloBackend.dto.BoardEventDto.Type;
+import com.crodrigo47.trelloBackend.exception.UserNotFoundException;
+import com.crodrigo47.trelloBackend.model.AccountDeletion;
+import com.crodrigo47.trelloBackend.model.AccountDeletion.Phase;
+import com.crodrigo47.trelloBackend.repository.AccountDeletionRepository;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+import com.crodrigo47.trelloBackend.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+
+/**
+ * Borrado de cuentas en segundo plano.
+ * DELETE /users/{id} solo registra la petición (tabla account_deletion). Un hilo propio la procesa
+ * por fases, en tandas de 'chunk-size' filas y con una transacción corta por tanda:
+ *   1. UNASSIGN_TASKS: las tareas asignadas al usuario quedan sin asignar.
+ *   2. DELETE_BOARDS: sus boards se borran con BoardDeleter, uno por transacción.
+ *   3. REASSIGN_CREATED_TASKS: sus tareas en boards ajenos pasan al creador del board.
+ *   4. DELETE_REMAINING_TASKS: las que quedan (sin board o sin creador de board) se borran,
+ *      con su tombstone para la sincronización incremental.
+ *   5. REMOVE_MEMBERSHIPS: deja de ser miembro de los boards ajenos.
+ *   6. DELETE_USER: si no queda nada suyo se borra el usuario; si entretanto ha creado algo,
+ *      se vuelve a empezar.
+ * Cada tanda guarda fase y filas procesadas en su misma transacción y todas son idempotentes,
+ * así que tras un reinicio se sigue por donde iba. Un solo hilo por nodo, y entre nodos un lease
+ * por petición (columnas locked_by/locked_until): cada tanda lo renueva en su propia transacción y,
+ * si otro nodo lo tiene vigente, la petición se deja para él. Si un nodo cae, otro la retoma al
+ * caducar el lease ('lease', mayor que lo que dura una tanda).
+ * Mientras el borrado está pendiente el usuario no puede autenticarse (ver isPending): si pudiera
+ * seguir creando cosas, DELETE_USER volvería a empezar una y otra vez. Al terminar tampoco, hasta que
+ * caduquen los tokens que se emitieron antes ('jwt.expiration-ms' después de finished_at).
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private final AccountDeletionRepository deletionRepository;
+    private final UserRepository userRepository;
+    private final BoardRepository boardRepository;
+    private final TaskRepository taskRepository;
+    private final BoardDeleter boardDeleter;
+    private final BoardAclCache boardAclCache;
+    private final BoardEventBroadcaster boardEvents;
+    private final BoardSyncService boardSyncService;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService executor;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration tokenMaxAge;
+    private final String nodeId = UUID.randomUUID().toString();
+    // Usuarios cuyos tokens se rechazan (ver refreshBlockedUsers) -> System.nanoTime() de cuando se confirmó
+    private final Map<Long, Long> blockedUserIds = new ConcurrentHashMap<>();
+
+    private final Map<Phase, Counter> processedRows = new EnumMap<>(Phase.class);
+    private final Counter completed;
+
+    public AccountDeletionService(
+            AccountDeletionRepository deletionRepository,
+            UserRepository userRepository,
+            BoardRepository boardRepository,
+            TaskRepository taskRepository,
+            BoardDeleter boardDeleter,
+            BoardAclCache boardAclCache,
+            BoardEventBroadcaster boardEvents,
+            BoardSyncService boardSyncService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${account.deletion.enabled:true}") boolean enabled,
+            @Value("${account.deletion.chunk-size:500}") int chunkSize,
+            @Value("${account.deletion.poll-interval:PT30S}") Duration pollInterval,
+            @Value("${account.deletion.lease:PT5M}") Duration lease,
+            @Value("${jwt.expiration-ms:86400000}") long tokenMaxAgeMs
+    ) {
+        this.deletionRepository = deletionRepository;
+        this.userRepository = userRepository;
+        this.boardRepository = boardRepository;
+        this.taskRepository = taskRepository;
+        this.boardDeleter = boardDeleter;
+        this.boardAclCache = boardAclCache;
+        this.boardEvents = boardEvents;
+        this.boardSyncService = boardSyncService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.tokenMaxAge = Duration.ofMillis(tokenMaxAgeMs);
+        this.executor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("account-deletion-"));
+
+        for (Phase phase : Phase.values()) {
+            processedRows.put(phase, Counter.builder("account.deletion.rows")
+                    .tag("phase", phase.name())
+                    .description("Rows processed by background account deletion")
+                    .register(meterRegistry));
+        }
+        this.completed = Counter.builder("account.deletion.completed")
+                .description("Accounts fully deleted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retoma las peticiones pendientes al arrancar y luego revisa cada 'poll-interval'.
+     * La lista de usuarios bloqueados se carga antes de atender peticiones y se refresca con el
+     * mismo intervalo aunque el worker esté desactivado (los borrados los puede procesar otro nodo).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refreshBlockedUsers();
+        executor.scheduleWithFixedDelay(this::refreshBlockedUsersSafely,
+                pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::processPendingSafely, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Registra el borrado de la cuenta (si ya estaba pedido devuelve la petición existente)
+     * y despierta al worker cuando la transacción hace commit.
+     */
+    @Transactional
+    public AccountDeletion request(Long userId) {
+        AccountDeletion deletion = deletionRepository.findById(userId).orElse(null);
+        if (deletion == null) {
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException("User id " + userId + " not found");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            deletion = deletionRepository.save(AccountDeletion.builder()
+                    .userId(userId)
+                    .phase(Phase.UNASSIGN_TASKS)
+                    .requestedAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        afterCommit(() -> {
+            blockedUserIds.put(userId, System.nanoTime());
+            wakeUp();
+        });
+        return deletion;
+    }
+
+    public Optional<AccountDeletion> getStatus(Long userId) {
+        return deletionRepository.findById(userId);
+    }
+
+    /**
+     * true si los tokens del usuario se deben rechazar: borrado sin terminar, o terminado hace menos
+     * de lo que dura un token. Lo consulta JwtAuthenticationFilter en cada petición, así que no va a la BD:
+     * las peticiones de este nodo se ven al hacer commit y las de otros nodos en el siguiente refresco.
+     */
+    public boolean isPending(Long userId) {
+        return userId != null && blockedUserIds.containsKey(userId);
+    }
+
+    /**
+     * Vuelve a leer de account_deletion qué usuarios están bloqueados y suelta los que ya no.
+     * Solo se sueltan entradas confirmadas antes de la consulta: un request() que hace commit
+     * mientras tanto no se pierde aunque la consulta no lo haya visto.
+     */
+    void refreshBlockedUsers() {
+        long startedAt = System.nanoTime();
+        List<Long> userIds = deletionRepository.findUserIdsWithLiveTokens(
+                Phase.DONE, LocalDateTime.now().minus(tokenMaxAge));
+        userIds.forEach(userId -> blockedUserIds.put(userId, startedAt));
+        blockedUserIds.values().removeIf(confirmedAt -> confirmedAt - startedAt < 0);
+    }
+
+    private void refreshBlockedUsersSafely() {
+        try {
+            refreshBlockedUsers();
+        } catch (RuntimeException ex) {
+            // Se queda la lista anterior hasta la siguiente vuelta
+            logger.warn("Could not refresh blocked users: {}", ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Procesa hasta el final todas las peticiones pendientes cuyo lease no tenga otro nodo.
+     * synchronized: el hilo del worker y una llamada directa (tests, administración) no se pisan.
+     */
+    public synchronized void processPending() {
+        List<Long> userIds = deletionRepository.findUserIdsByPhaseNot(Phase.DONE);
+        for (Long userId : userIds) {
+            Phase phase;
+            while ((phase = currentPhase(userId)) != Phase.DONE) {
+                if (!runStep(userId, phase)) {
+                    logger.debug("Account deletion {} is being processed by another node", userId);
+                    break;
+                }
+            }
+            if (phase == Phase.DONE) {
+                completed.increment();
+                logger.info("Account {} deleted", userId);
+            }
+        }
+    }
+
+    private void processPendingSafely() {
+        try {
+            processPending();
+        } catch (RuntimeException ex) {
+            // Se reintenta en la siguiente vuelta desde la fase guardada
+            logger.warn("Account deletion failed, will retry: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void wakeUp() {
+        if (enabled) {
+            executor.execute(this::processPendingSafely);
+        }
+    }
+
+    private Phase currentPhase(Long userId) {
+        return deletionRepository.findById(userId).map(AccountDeletion::getPhase).orElse(Phase.DONE);
+    }
+
+    // false si el lease lo tiene otro nodo (no se ha hecho nada)
+    private boolean runStep(Long userId, Phase phase) {
+        if (phase == Phase.DELETE_BOARDS) {
+            // Cada board en sus propias transacciones (BoardDeleter); solo el progreso va aparte
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(s -> claim(userId)))) {
+                return false;
+            }
+            List<Long> boardIds = boardRepository.findIdsByCreatedById(userId, Limit.of(chunkSize));
+            boardIds.forEach(boardId -> {
+                boardDeleter.delete(boardId);
+                boardEvents.publish(Type.BOARD_DELETED, boardId, null, null);
+            });
+            return Boolean.TRUE.equals(transactionTemplate.execute(s -> {
+                if (!claim(userId)) {
+                    return false;
+                }
+                advance(userId, phase, boardIds.size());
+                return true;
+            }));
+        }
+
+        return Boolean.TRUE.equals(transactionTemplate.execute(s -> {
+            if (!claim(userId)) {
+                return false;
+            }
+            switch (phase) {
+                case UNASSIGN_TASKS -> {
+                    List<BoardChildId> chunk = taskRepository.findChunkByAssignedToId(userId, Limit.of(chunkSize));
+                    if (!chunk.isEmpty()) {
+                        taskRepository.unassignByIds(userId, taskIds(chunk), LocalDateTime.now());
+                    }
+                    touchBoards(boardIds(chunk));
+                    advance(userId, phase, chunk.size());
+                }
+                case REASSIGN_CREATED_TASKS -> {
+                    List<BoardChildId> chunk = taskRepository.findChunkToReassignByCreatedById(userId, Limit.of(chunkSize));
+                    if (!chunk.isEmpty()) {
+                        taskRepository.reassignToBoardCreatorByIds(userId, taskIds(chunk), LocalDateTime.now());
+                    }
+                    touchBoards(boardIds(chunk));
+                    advance(userId, phase, chunk.size());
+                }
+                case DELETE_REMAINING_TASKS -> {
+                    List<BoardChildId> chunk = taskRepository.findChunkByCreatedById(userId, Limit.of(chunkSize));
+                    int deleted = chunk.isEmpty() ? 0 : taskRepository.deleteByIdsAndCreatedById(userId, taskIds(chunk));
+                    boardSyncService.recordTaskDeletions(chunk);
+                    touchBoards(boardIds(chunk));
+                    advance(userId, phase, deleted);
+                }
+                case REMOVE_MEMBERSHIPS -> {
+                    List<Long> boardIds = boardRepository.findIdsByMemberId(userId, Limit.of(chunkSize));
+                    boardIds.forEach(boardAclCache::beginChange);
+                    int removed = boardIds.isEmpty() ? 0 : boardRepository.deleteMemberships(userId, boardIds);
+                    touchBoards(boardIds);
+                    boardIds.forEach(boardId -> boardEvents.publish(Type.MEMBER_REMOVED, boardId, null, userId));
+                    advance(userId, phase, removed);
+                }
+                case DELETE_USER -> deleteUserIfNothingLeft(userId);
+                default -> throw new IllegalStateException("Unexpected phase " + phase);
+            }
+            return true;
+        }));
+    }
+
+    // Toma o renueva el lease de la petición hasta now + lease
+    private boolean claim(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return deletionRepository.claim(userId, nodeId, now, now.plus(lease)) == 1;
+    }
+
+    private static List<Long> taskIds(List<BoardChildId> chunk) {
+        return chunk.stream().map(BoardChildId::childId).toList();
+    }
+
+    // Solo los boards de las tareas de esta tanda (las tareas sin board no tocan ninguno)
+    private static List<Long> boardIds(List<BoardChildId> chunk) {
+        return chunk.stream().map(BoardChildId::boardId).filter(Objects::nonNull).distinct().toList();
+    }
+
+    // Los ETag de esos boards dejan de valer (ver BoardRepository.incrementChangeCount)
+    // y sus suscriptores se resincronizan: los cambios por tandas no generan eventos por tarea
+    private void touchBoards(List<Long> boardIds) {
+        if (!boardIds.isEmpty()) {
+            boardRepository.incrementChangeCounts(boardIds);
+            boardIds.forEach(boardId -> boardEvents.publish(Type.RESYNC, boardId, null, null));
+        }
+    }
+
+    // Una tanda incompleta significa que la fase ha terminado
+    private void advance(Long userId, Phase phase, int rows) {
+        AccountDeletion deletion = deletionRepository.findById(userId).orElseThrow();
+        deletion.setProcessedRows(deletion.getProcessedRows() + rows);
+        deletion.setUpdatedAt(LocalDateTime.now());
+        if (rows < chunkSize) {
+            deletion.setPhase(phase.next());
+        }
+        processedRows.get(phase).increment(rows);
+    }
+
+    private void deleteUserIfNothingLeft(Long userId) {
+        AccountDeletion deletion = deletionRepository.findById(userId).orElseThrow();
+        deletion.setUpdatedAt(LocalDateTime.now());
+
+        boolean leftovers = taskRepository.existsByAssignedToId(userId)
+                || taskRepository.existsByCreatedById(userId)
+                || boardRepository.existsByCreatedById(userId)
+                || boardRepository.existsByUsersId(userId);
+        if (leftovers) {
+            // Ha creado o recibido algo mientras se borraba: otra vuelta completa
+            deletion.setPhase(Phase.UNASSIGN_TASKS);
+            return;
+        }
+
+        userRepository.deleteById(userId);
+        deletion.setPhase(Phase.DONE);
+        deletion.setFinishedAt(deletion.getUpdatedAt());
+        deletion.setLockedBy(null);
+        deletion.setLockedUntil(null);
+    }
+}
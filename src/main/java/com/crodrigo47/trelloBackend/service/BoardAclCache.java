@@ -0,0 +1,224 @@
+package com.crodrigo47.trelloBackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché de miembros por board (boardId → ids de usuario) para la autorización.
+ * - Cada entrada es un long[] ordenado e inmutable: 8 bytes por miembro y búsqueda binaria.
+ * - Las escrituras sobre board_user marcan el board como "en cambio" hasta que la transacción
+ *   termina: mientras tanto se consulta la BD directamente y no se cachea nada, y al terminar
+ *   se descarta la entrada. Una carga que empezó antes del cambio no puede guardarse después
+ *   (se compara la generación), así que un miembro eliminado no se autoriza tras el commit.
+ * - El tamaño está limitado: al llenarse se descartan entradas.
+ * - Entre nodos: beginChange/endChange solo limpian este nodo. Por eso cada entrada guarda el
+ *   board.change_count con el que se cargó (cada cambio de miembros lo sube) y caduca a los 'ttl'.
+ *   Quien ya ha leído el contador (BoardStamp, TaskStamp, la entidad Board) lo pasa a isMember y una
+ *   entrada de otro contador se recarga: el cambio hecho en otro nodo se ve en la siguiente petición.
+ *   Sin contador solo vale la entrada si no ha caducado.
+ */
+@Component
+public class BoardAclCache {
+
+    // Contador desconocido: la entrada solo vale mientras no caduque
+    private static final long ANY_CHANGE_COUNT = -1;
+
+    private record Entry(long[] members, long changeCount, long loadedAt) {}
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> pendingChanges = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final BoardRepository boardRepository;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public BoardAclCache(
+            BoardRepository boardRepository,
+            MeterRegistry meterRegistry,
+            @Value("${board.acl-cache.enabled:true}") boolean enabled,
+            @Value("${board.acl-cache.max-size:10000}") int maxSize,
+            @Value("${board.acl-cache.ttl:PT5S}") Duration ttl
+    ) {
+        this(boardRepository, meterRegistry, enabled, maxSize, ttl, System::nanoTime);
+    }
+
+    BoardAclCache(BoardRepository boardRepository, MeterRegistry meterRegistry, boolean enabled, int maxSize,
+                  Duration ttl, LongSupplier nanoClock) {
+        this.boardRepository = boardRepository;
+        this.enabled = enabled;
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+
+        this.hits = Counter.builder("board.acl.cache.gets")
+                .tag("result", "hit")
+                .description("Board membership cache lookups")
+                .register(meterRegistry);
+        this.misses = Counter.builder("board.acl.cache.gets")
+                .tag("result", "miss")
+                .description("Board membership cache lookups")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("board.acl.cache.evictions")
+                .description("Entries removed because the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("board.acl.cache.size", entries, Map::size)
+                .description("Boards currently cached")
+                .register(meterRegistry);
+        Gauge.builder("board.acl.cache.hit.ratio", this, BoardAclCache::hitRatio)
+                .description("Fraction of membership lookups answered from the cache")
+                .register(meterRegistry);
+    }
+
+    public boolean isMember(Long boardId, Long userId) {
+        return isMember(boardId, userId, ANY_CHANGE_COUNT);
+    }
+
+    // 'changeCount': board.change_count leído por el llamante en esta petición
+    public boolean isMember(Long boardId, Long userId, long changeCount) {
+        if (boardId == null || userId == null) {
+            return false;
+        }
+        if (!enabled || pendingChanges.containsKey(boardId)) {
+            return boardRepository.existsByIdAndUsersId(boardId, userId);
+        }
+
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(boardId);
+        if (entry != null && isValid(entry, changeCount, now)) {
+            hits.increment();
+            return Arrays.binarySearch(entry.members(), userId) >= 0;
+        }
+
+        misses.increment();
+        long stamp = generation.get();
+        long[] members = toSortedArray(boardRepository.findMemberIdsById(boardId));
+        store(boardId, new Entry(members, changeCount, now), stamp);
+        return Arrays.binarySearch(members, userId) >= 0;
+    }
+
+    private boolean isValid(Entry entry, long changeCount, long now) {
+        return now - entry.loadedAt() < ttlNanos
+                && (changeCount == ANY_CHANGE_COUNT || entry.changeCount() == changeCount);
+    }
+
+    /**
+     * Llamar dentro de la transacción, antes de modificar los miembros de un board (o de borrarlo).
+     * El board queda fuera de la caché hasta que la transacción termine.
+     * Sin transacción activa solo se descarta la entrada: en ese caso llamar después del cambio.
+     */
+    public void beginChange(Long boardId) {
+        if (boardId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            endChange(boardId, false);
+            return;
+        }
+
+        pendingChanges.merge(boardId, 1, Integer::sum);
+        entries.remove(boardId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                endChange(boardId, true);
+            }
+        });
+    }
+
+    // Write-through para boards nuevos: su único miembro es el creador
+    public void boardCreated(Long boardId, Long creatorId) {
+        if (!enabled || boardId == null || creatorId == null) {
+            return;
+        }
+        runAfterCommit(() -> {
+            evictIfFull();
+            entries.putIfAbsent(boardId, new Entry(new long[]{creatorId}, ANY_CHANGE_COUNT, nanoClock.getAsLong()));
+        });
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+        runAfterCommit(() -> {
+            generation.incrementAndGet();
+            entries.clear();
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void endChange(Long boardId, boolean pending) {
+        generation.incrementAndGet();
+        if (pending) {
+            pendingChanges.computeIfPresent(boardId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+        entries.remove(boardId);
+    }
+
+    // Solo se guarda si no ha habido cambios desde que empezó la carga
+    private void store(Long boardId, Entry entry, long stamp) {
+        evictIfFull();
+        entries.compute(boardId, (id, current) ->
+                generation.get() == stamp && !pendingChanges.containsKey(id) ? entry : current);
+    }
+
+    private void evictIfFull() {
+        Iterator<Long> it = entries.keySet().iterator();
+        while (entries.size() >= maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long[] toSortedArray(List<Long> ids) {
+        long[] array = ids.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(array);
+        return array;
+    }
+}
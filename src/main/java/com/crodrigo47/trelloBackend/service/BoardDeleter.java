@@ -0,0 +1,62 @@
+package com.crodrigo47.trelloBackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+import com.crodrigo47.trelloBackend.repository.TaskTombstoneRepository;
+
+/**
+ * Borrado de boards con sentencias por conjuntos (task, task_tombstone, board_user, board) sin cargar
+ * tareas ni miembros; la cascada de JPA los cargaba todos y borraba fila a fila.
+ * - board.delete.chunk-size = 0: todo en una única transacción corta.
+ * - Mayor que 0: antes se borran las tareas en tandas de ese tamaño, cada una en su propia
+ *   transacción, para no bloquear de golpe las filas de un board enorme. Si algo falla a
+ *   medias el board sigue existiendo y el borrado se puede repetir.
+ * Las tandas solo son transacciones separadas si se llama fuera de una transacción.
+ */
+@Component
+public class BoardDeleter {
+
+    private final BoardRepository boardRepository;
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final BoardAclCache boardAclCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BoardDeleter(
+            BoardRepository boardRepository,
+            TaskRepository taskRepository,
+            TaskTombstoneRepository tombstoneRepository,
+            BoardAclCache boardAclCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${board.delete.chunk-size:0}") int chunkSize
+    ) {
+        this.boardRepository = boardRepository;
+        this.taskRepository = taskRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.boardAclCache = boardAclCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(0, chunkSize);
+    }
+
+    public void delete(Long boardId) {
+        if (chunkSize > 0) {
+            Integer deleted;
+            do {
+                deleted = transactionTemplate.execute(s -> taskRepository.deleteChunkByBoardId(boardId, chunkSize));
+            } while (deleted != null && deleted >= chunkSize);
+        }
+
+        transactionTemplate.executeWithoutResult(s -> {
+            boardAclCache.beginChange(boardId);
+            taskRepository.deleteByBoardId(boardId);
+            tombstoneRepository.deleteByBoardId(boardId);
+            boardRepository.deleteBoardById(boardId);
+        });
+    }
+}
@@ -0,0 +1,357 @@
+package com.crodrigo47.trelloBackend.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.crodrigo47.trelloBackend.dto.BoardEventDto;
+import com.crodrigo47.trelloBackend.dto.BoardEventDto.Type;
+import com.crodrigo47.trelloBackend.dto.DtoMapper;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Eventos en vivo de los boards por SSE (GET /boards/{boardId}/events).
+ * - BoardService, TaskService y AccountDeletionService publican cuando la transacción hace commit;
+ *   si hace rollback no sale nada.
+ * - Publicar no bloquea: el evento se serializa una vez y se encola en cada suscriptor del board.
+ *   Los envíos los hace un pool de 'sender-threads' hilos.
+ * - Cada suscriptor tiene una cola de 'buffer-size' eventos. Si se llena (cliente lento), lo
+ *   pendiente se sustituye por un único RESYNC y el cliente se pone al día con /changes.
+ *   Si un envío falla, el suscriptor se da de baja.
+ * - Al quitar a un miembro se cierran sus conexiones a ese board; al borrar el board, todas.
+ *   Eso solo alcanza a las conexiones de este nodo: las de otros nodos las cierra el latido.
+ * - Cada 'heartbeat' se manda un comentario para que los proxies no corten la conexión
+ *   y para detectar clientes que ya no están. Antes se repite la comprobación de acceso de cada
+ *   suscriptor (BoardAclCache con el change_count del board) y se cierra el que ya no puede ver
+ *   el board: con varios nodos, un miembro quitado deja de recibir eventos en como mucho un latido.
+ * No hay reenvío por Last-Event-ID: al reconectar el cliente pide /changes con su última marca.
+ */
+@Component
+public class BoardEventBroadcaster {
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Counter delivered;
+    private final Counter coalesced;
+    private final Counter disconnected;
+    private final Timer latency;
+
+    public BoardEventBroadcaster(
+            ObjectProvider<ObjectMapper> objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${board.events.buffer-size:64}") int bufferSize,
+            @Value("${board.events.sender-threads:4}") int senderThreads,
+            @Value("${board.events.timeout:PT30M}") Duration timeout,
+            @Value("${board.events.heartbeat:PT30S}") Duration heartbeat
+    ) {
+        this.objectMapper = objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json().build());
+        this.bufferSize = Math.max(2, bufferSize);
+        this.timeout = timeout;
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads),
+                new CustomizableThreadFactory("board-events-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("board-events-heartbeat-"));
+        if (!heartbeat.isZero()) {
+            heartbeats.scheduleWithFixedDelay(this::sendHeartbeats,
+                    heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("board.events.subscribers", subscribers,
+                        s -> s.values().stream().mapToInt(Set::size).sum())
+                .description("Open SSE connections to board event streams")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("board.events.delivered")
+                .description("Events written to SSE subscribers")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("board.events.coalesced")
+                .description("Subscriber buffers replaced by a RESYNC event because the client was too slow")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("board.events.disconnected")
+                .description("Subscribers dropped after a failed send")
+                .register(meterRegistry);
+        this.latency = Timer.builder("board.events.latency")
+                .description("Time from commit to the event being written to the subscriber")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+    }
+
+    /**
+     * Da de alta la conexión y después ejecuta 'accessCheck' (lanza si 'userId' no puede ver el board).
+     * En este orden no hay hueco en este nodo: si el acceso se retira antes de la comprobación, falla
+     * y se da de baja; si se retira después, el suscriptor ya existe y el MEMBER_REMOVED lo cierra.
+     * Si la baja se hace en otro nodo el MEMBER_REMOVED no llega aquí: 'accessCheck' se repite en
+     * cada latido.
+     */
+    public SseEmitter subscribe(Long boardId, Long userId, Runnable accessCheck) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = register(boardId, userId, emitter, accessCheck);
+        try {
+            accessCheck.run();
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        return emitter;
+    }
+
+    SseEmitter subscribe(Long boardId, Long userId, SseEmitter emitter) {
+        register(boardId, userId, emitter, null);
+        return emitter;
+    }
+
+    private Subscriber register(Long boardId, Long userId, SseEmitter emitter, Runnable accessCheck) {
+        Subscriber subscriber = new Subscriber(boardId, userId, emitter, accessCheck,
+                new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.computeIfAbsent(boardId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        return subscriber;
+    }
+
+    // Altas y cambios de tareas: el DTO se construye tras el commit, con la versión ya incrementada
+    public void publishTask(Type type, Task task) {
+        if (task == null || task.getBoard() == null || task.getBoard().getId() == null) {
+            return;
+        }
+        Long boardId = task.getBoard().getId();
+        afterCommit(() -> broadcast(new BoardEventDto(type, boardId, task.getId(),
+                task.getAssignedTo() != null ? task.getAssignedTo().getId() : null, DtoMapper.toTaskDto(task))));
+    }
+
+    public void publish(Type type, Long boardId, Long taskId, Long userId) {
+        if (boardId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            broadcast(new BoardEventDto(type, boardId, taskId, userId, null));
+            if (type == Type.MEMBER_REMOVED) {
+                closeWhere(boardId, s -> Objects.equals(s.userId, userId));
+            } else if (type == Type.BOARD_DELETED) {
+                closeWhere(boardId, s -> true);
+            }
+        });
+    }
+
+    // Mismo criterio que AccountDeletionService.afterCommit
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void broadcast(BoardEventDto event) {
+        Set<Subscriber> targets = subscribers.get(event.boardId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        Outgoing outgoing;
+        try {
+            outgoing = new Outgoing(event.type().name(), objectMapper.writeValueAsString(event), System.nanoTime());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize board event", e);
+        }
+        for (Subscriber subscriber : targets) {
+            enqueue(subscriber, outgoing);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Outgoing outgoing) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.offer(outgoing)) {
+            // Cliente lento: en vez de crecer sin límite se descarta lo pendiente y se pide resincronizar
+            subscriber.replaceAll(new Outgoing(Type.RESYNC.name(), resyncPayload(subscriber.boardId), outgoing.publishedAt));
+            coalesced.increment();
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Outgoing next;
+            while ((next = subscriber.poll()) != null) {
+                if (next.data == null) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(sequence.incrementAndGet()))
+                        .name(next.name)
+                        .data(next.data, MediaType.APPLICATION_JSON));
+                latency.record(System.nanoTime() - next.publishedAt, TimeUnit.NANOSECONDS);
+                delivered.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Conexión cerrada o emisor ya completado
+            disconnected.increment();
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.scheduled.set(false);
+            // Lo encolado entre el último poll y el set(false) no puede quedarse esperando
+            if (!subscriber.closed && !subscriber.isEmpty()) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    void sendHeartbeats() {
+        Outgoing heartbeat = new Outgoing(null, null, System.nanoTime());
+        subscribers.values().forEach(set -> set.forEach(s -> {
+            if (!stillAllowed(s)) {
+                remove(s);
+                s.emitter.complete();
+                return;
+            }
+            // Con cola llena ya hay envíos pendientes que hacen de latido
+            if (s.offer(heartbeat)) {
+                scheduleDrain(s);
+            }
+        }));
+    }
+
+    // Cualquier fallo cierra la conexión: el cliente reconecta y vuelve a pasar por subscribe
+    private boolean stillAllowed(Subscriber subscriber) {
+        if (subscriber.accessCheck == null) {
+            return true;
+        }
+        try {
+            subscriber.accessCheck.run();
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void closeWhere(Long boardId, Predicate<Subscriber> condition) {
+        Set<Subscriber> set = subscribers.get(boardId);
+        if (set == null) {
+            return;
+        }
+        set.stream().filter(condition).toList().forEach(s -> {
+            remove(s);
+            s.emitter.complete();
+        });
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.computeIfPresent(subscriber.boardId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private String resyncPayload(Long boardId) {
+        try {
+            return objectMapper.writeValueAsString(new BoardEventDto(Type.RESYNC, boardId, null, null, null));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize board event", e);
+        }
+    }
+
+    // Número de conexiones abiertas a un board (tests y métricas)
+    int subscriberCount(Long boardId) {
+        Set<Subscriber> set = subscribers.get(boardId);
+        return set == null ? 0 : set.size();
+    }
+
+    // data == null: latido (comentario SSE)
+    private record Outgoing(String name, String data, long publishedAt) {}
+
+    // La cola solo se toca con el lock del suscriptor: así vaciarla y dejar el RESYNC es una sola
+    // operación para el hilo que envía y para otros publicadores
+    private static final class Subscriber {
+        final Long boardId;
+        final Long userId;
+        final SseEmitter emitter;
+        final Runnable accessCheck;
+        private final Queue<Outgoing> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(Long boardId, Long userId, SseEmitter emitter, Runnable accessCheck, Queue<Outgoing> queue) {
+            this.boardId = boardId;
+            this.userId = userId;
+            this.emitter = emitter;
+            this.accessCheck = accessCheck;
+            this.queue = queue;
+        }
+
+        synchronized boolean offer(Outgoing outgoing) {
+            return queue.offer(outgoing);
+        }
+
+        synchronized void replaceAll(Outgoing outgoing) {
+            queue.clear();
+            queue.offer(outgoing);
+        }
+
+        synchronized Outgoing poll() {
+            return queue.poll();
+        }
+
+        synchronized boolean isEmpty() {
+            return queue.isEmpty();
+        }
+    }
+}
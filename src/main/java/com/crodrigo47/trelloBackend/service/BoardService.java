@@ -1,18 +1,33 @@
 package com.crodrigo47.trelloBackend.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import com.crodrigo47.trelloBackend.dto.BoardChildId;
+import com.crodrigo47.trelloBackend.dto.BoardDto;
+import com.crodrigo47.trelloBackend.dto.BoardEventDto.Type;
+import com.crodrigo47.trelloBackend.dto.BoardRow;
+import com.crodrigo47.trelloBackend.dto.BoardSnapshotDto;
+import com.crodrigo47.trelloBackend.dto.BoardStamp;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.dto.DtoMapper;
+import com.crodrigo47.trelloBackend.dto.TaskCreatedDto;
+import com.crodrigo47.trelloBackend.dto.TaskDto;
 import com.crodrigo47.trelloBackend.exception.BoardNotFoundException;
+import com.crodrigo47.trelloBackend.exception.InvalidBatchException;
 import com.crodrigo47.trelloBackend.exception.TaskNotFoundException;
 import com.crodrigo47.trelloBackend.exception.UserNotFoundException;
 import com.crodrigo47.trelloBackend.model.Board;
 import com.crodrigo47.trelloBackend.model.Task;
 import com.crodrigo47.trelloBackend.model.User;
 import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.LikePatterns;
 import com.crodrigo47.trelloBackend.repository.TaskRepository;
 import com.crodrigo47.trelloBackend.repository.UserRepository;
 
@@ -20,15 +35,30 @@ import jakarta.transaction.Transactional;
 
 @Service
 public class BoardService {
-    
+
+    // Máximo de tareas por llamada a addTasksToBoard
+    public static final int MAX_TASK_BATCH = 1000;
+
     private final BoardRepository boardRepository;
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
-
-    public BoardService(BoardRepository boardRepository, UserRepository userRepository, TaskRepository taskRepository){
+    private final BoardAclCache boardAclCache;
+    private final BoardDeleter boardDeleter;
+    private final OptimisticRetry optimisticRetry;
+    private final BoardSyncService boardSyncService;
+    private final BoardEventBroadcaster boardEvents;
+
+    public BoardService(BoardRepository boardRepository, UserRepository userRepository, TaskRepository taskRepository,
+                        BoardAclCache boardAclCache, BoardDeleter boardDeleter, OptimisticRetry optimisticRetry,
+                        BoardSyncService boardSyncService, BoardEventBroadcaster boardEvents){
         this.boardRepository = boardRepository;
         this.userRepository = userRepository;
         this.taskRepository = taskRepository;
+        this.boardAclCache = boardAclCache;
+        this.boardDeleter = boardDeleter;
+        this.optimisticRetry = optimisticRetry;
+        this.boardSyncService = boardSyncService;
+        this.boardEvents = boardEvents;
     }
 
     /**
@@ -54,59 +84,162 @@ public class BoardService {
     }
 
     /**
-     * Decide si 'user' es miembro del board (está en board.getUsers()).
-     * - Preferir comparar por id si disponible.
-     * - Si no, comparar por referencia o username.
+     * Decide si 'user' es miembro del board.
+     * - Se resuelve con BoardAclCache (o una consulta indexada sobre board_user): no inicializa board.getUsers().
+     * - Sin ids (entidades sin persistir) no puede haber fila en board_user.
      */
     private boolean isMember(Board board, User user) {
-        if (board == null || board.getUsers() == null || user == null) {
+        if (board == null || user == null) {
             return false;
         }
+        return boardAclCache.isMember(board.getId(), user.getId(), board.getChangeCount());
+    }
 
-        // Si user tiene id, buscar por id en la colección
-        if (user.getId() != null) {
-            return board.getUsers().stream()
-                    .anyMatch(u -> u != null && u.getId() != null && Objects.equals(u.getId(), user.getId()));
+    public List<Board> getAllBoardsForCurrentUser(User currentUser) {
+        return boardRepository.findByUsersId(currentUser.getId());
+    }
+
+    /**
+     * Boards del usuario ya convertidos a DTO, con un número fijo de consultas
+     * (filas, ids de miembros, ids de tareas) sea cual sea el número de boards.
+     * Si 'name' viene informado se filtra por nombre.
+     */
+    public List<BoardDto> getBoardDtosForCurrentUser(User currentUser, String name) {
+        List<BoardRow> rows = (name != null && !name.isBlank())
+                ? boardRepository.findRowsByMemberIdAndName(currentUser.getId(), LikePatterns.escape(name))
+                : boardRepository.findRowsByMemberId(currentUser.getId());
+        if (rows.isEmpty()) {
+            return List.of();
         }
 
-        // Si user no tiene id, comparar por referencia o por username
-        return board.getUsers().stream()
-                .anyMatch(u -> u == user || (u.getUsername() != null && u.getUsername().equals(user.getUsername())));
+        List<Long> boardIds = rows.stream().map(BoardRow::id).toList();
+        Map<Long, Set<Long>> userIds = groupByBoard(boardRepository.findMemberIdsByBoardIds(boardIds));
+        Map<Long, Set<Long>> taskIds = groupByBoard(boardRepository.findTaskIdsByBoardIds(boardIds));
+
+        return rows.stream()
+                .map(row -> DtoMapper.toBoardDto(row,
+                        userIds.getOrDefault(row.id(), Set.of()),
+                        taskIds.getOrDefault(row.id(), Set.of())))
+                .toList();
     }
 
-    public List<Board> getAllBoardsForCurrentUser(User currentUser) {
-        return boardRepository.findByUsersId(currentUser.getId());
+    private static Map<Long, Set<Long>> groupByBoard(List<BoardChildId> ids) {
+        return ids.stream().collect(Collectors.groupingBy(BoardChildId::boardId,
+                Collectors.mapping(BoardChildId::childId, Collectors.toSet())));
+    }
+
+    /**
+     * ETag de GET /boards/{id}: id y contador de cambios del board.
+     * Autoriza igual que getBoardById pero con una sola consulta de columnas sueltas,
+     * sin cargar el board ni sus colecciones, para poder responder 304 sin más trabajo.
+     */
+    public String getBoardEtag(Long boardId, User currentUser) {
+        return "b" + boardId + "." + authorizedStamp(boardId, currentUser).changeCount();
+    }
+
+    // Misma autorización que getBoardById sin cargar el board (p. ej. antes de abrir GET /boards/{id}/events)
+    public void checkCanView(Long boardId, User currentUser) {
+        authorizedStamp(boardId, currentUser);
+    }
+
+    private BoardStamp authorizedStamp(Long boardId, User currentUser) {
+        BoardStamp stamp = boardRepository.findStampById(boardId)
+            .orElseThrow(() -> new BoardNotFoundException("Board not found"));
+
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        boolean creator = userId != null && userId.equals(stamp.createdById());
+        if (!creator && !boardAclCache.isMember(boardId, userId, stamp.changeCount())) {
+            throw new RuntimeException("Not authorized to access this board");
+        }
+        return stamp;
+    }
+
+    // ETag de una página de GET /boards/{id}/tasks: el del board más el cursor y el tamaño de página
+    public String getTasksEtag(Long boardId, User currentUser, String cursor, Integer limit) {
+        String page = CursorPage.isUnpaged(cursor, limit)
+            ? "all"
+            : CursorPage.decode(cursor) + "." + CursorPage.clampLimit(limit);
+        return getBoardEtag(boardId, currentUser) + ".t" + page;
+    }
+
+    // ETag de GET /boards/{id}/snapshot: el del board más el filtro de estado
+    public String getSnapshotEtag(Long boardId, User currentUser, Task.Status status) {
+        return getBoardEtag(boardId, currentUser) + ".s" + (status != null ? status.name() : "");
+    }
+
+    /**
+     * Board, miembros y tareas (opcionalmente de un estado) para pintar la vista del board.
+     * Siempre las mismas consultas de proyección: fila del board, membresía (si no es el creador
+     * y no está en BoardAclCache), miembros y tareas. No se carga ninguna entidad ni colección.
+     */
+    public BoardSnapshotDto getBoardSnapshot(Long boardId, User currentUser, Task.Status status) {
+        BoardRow row = boardRepository.findRowById(boardId)
+            .orElseThrow(() -> new BoardNotFoundException("Board not found"));
+
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        boolean creator = userId != null && userId.equals(row.createdById());
+        if (!creator && !boardAclCache.isMember(boardId, userId)) {
+            throw new RuntimeException("Not authorized to access this board");
+        }
+
+        List<TaskDto> tasks = status != null
+                ? taskRepository.findDtosByBoardIdAndStatus(boardId, status)
+                : taskRepository.findDtosByBoardId(boardId);
+        return new BoardSnapshotDto(row.id(), row.name(), row.description(), row.createdById(), row.version(),
+                boardRepository.findMembersById(boardId), tasks);
     }
 
     public Board getBoardById(Long id, User currentUser) {
         Board board = boardRepository.findById(id)
             .orElseThrow(() -> new BoardNotFoundException("Board not found"));
         
-        if (!isMember(board, currentUser) && !isCreator(board, currentUser)) {
+        // isCreator primero: no necesita consulta
+        if (!isCreator(board, currentUser) && !isMember(board, currentUser)) {
             throw new RuntimeException("Not authorized to access this board");
         }
 
         return board;
     }
 
+    @Transactional
     public Board createBoard(Board board, User creator){
+        board.setId(null);
+        board.setVersion(null);
         board.setCreatedBy(creator);
         board.addUser(creator);
-        return boardRepository.save(board);
+        Board saved = boardRepository.save(board);
+        boardAclCache.boardCreated(saved.getId(), creator.getId());
+        return saved;
     }
 
+    /**
+     * Con 'version' en el cuerpo distinta de la actual se rechaza con 409 (edición sobre datos viejos);
+     * las carreras entre lectura y commit se reintentan (OptimisticRetry).
+     */
     public Board updateBoard(Board board, User currentUser){
-        Board existing = getBoardById(board.getId(), currentUser);
-
-        if(!isCreator(existing, currentUser)){
-            throw new RuntimeException("Only the creator can update this board");
-        }
+        Long boardId = board.getId();
+        return optimisticRetry.execute("Board " + boardId, () -> {
+            Board existing = getBoardById(boardId, currentUser);
+
+            if(!isCreator(existing, currentUser)){
+                throw new RuntimeException("Only the creator can update this board");
+            }
+            OptimisticRetry.requireVersion("Board " + boardId, board.getVersion(), existing.getVersion());
+
+            existing.setName(board.getName());
+            existing.setDescription(board.getDescription());
+            Board saved = boardRepository.save(existing);
+            boardRepository.incrementChangeCount(boardId);
+            boardEvents.publish(Type.BOARD_UPDATED, boardId, null, null);
+            return saved;
+        }, () -> currentVersion(boardId));
+    }
 
-        existing.setName(board.getName());
-        existing.setDescription(board.getDescription());
-        return boardRepository.save(existing);
+    private Long currentVersion(Long boardId) {
+        return boardRepository.findVersionById(boardId).orElse(null);
     }
 
+    // Sin @Transactional: BoardDeleter abre sus propias transacciones (tandas en boards grandes)
     public void deleteBoard(Long boardId, User currentUser){
         Board existing = getBoardById(boardId, currentUser);
 
@@ -114,78 +247,172 @@ public class BoardService {
             throw new RuntimeException("Only the creator can delete this board");
         }
 
-        boardRepository.delete(existing);
+        boardDeleter.delete(boardId);
+        boardEvents.publish(Type.BOARD_DELETED, boardId, null, null);
     }
 
+    /**
+     * Alta de una tarea en el board.
+     * Se inserta la tarea directamente: no se inicializa board.getTasks() ni se guarda el board,
+     * así que el coste no depende de cuántas tareas tenga ya.
+     */
     @Transactional
-    public Board addTaskToBoard(Long boardId, Task task, User currentUser) {
+    public Task addTaskToBoard(Long boardId, Task task, User currentUser) {
         Board board = getBoardById(boardId, currentUser);
 
         if (!isMember(board, currentUser)) {
             throw new RuntimeException("You must be a member to add tasks");
         }
 
-        // Asegurarse de que la tarea tiene createdBy y board antes de persistir
+        // Siempre alta nueva: un id en el cuerpo haría un merge sobre otra tarea
+        task.setId(null);
+        task.setVersion(null);
         task.setCreatedBy(currentUser);
         task.setBoard(board);
+        Task saved = taskRepository.save(task);
+        boardRepository.incrementChangeCount(boardId);
+        boardEvents.publishTask(Type.TASK_CREATED, saved);
+        return saved;
+    }
 
-        // Añadir y guardar
-        board.addTask(task);
-        return boardRepository.save(board);
+    /**
+     * addTaskToBoard para el controlador: además de la tarea devuelve el contador de cambios del board.
+     * Se lee en la misma transacción, después del UPDATE que lo sube (la fila queda bloqueada hasta el
+     * commit), así que es exactamente el valor que deja este alta.
+     */
+    @Transactional
+    public TaskCreatedDto addTaskWithBoardVersion(Long boardId, Task task, User currentUser) {
+        Task saved = addTaskToBoard(boardId, task, currentUser);
+        long boardVersion = boardRepository.findChangeCountById(boardId)
+            .orElseThrow(() -> new BoardNotFoundException("Board not found"));
+        return new TaskCreatedDto(DtoMapper.toTaskDto(saved), boardVersion);
     }
 
-    public void removeTaskFromBoard(Long boardId, Long taskId, User currentUser){
+    /**
+     * Alta de varias tareas de golpe (migraciones desde otras herramientas).
+     * - El board se autoriza una sola vez para todo el lote.
+     * - No pasa por board.getTasks(): cada tarea apunta al board y se guarda con saveAll,
+     *   así los INSERT van en lotes JDBC.
+     * - Se ignoran id y assignedTo que vengan en el cuerpo; la asignación va por su endpoint.
+     * Devuelve los ids creados en el mismo orden que la entrada.
+     */
+    @Transactional
+    public List<Long> addTasksToBoard(Long boardId, List<Task> tasks, User currentUser) {
+        if (tasks == null || tasks.isEmpty()) {
+            throw new InvalidBatchException("Batch must contain at least one task");
+        }
+        if (tasks.size() > MAX_TASK_BATCH) {
+            throw new InvalidBatchException("Batch of " + tasks.size() + " tasks exceeds the limit of " + MAX_TASK_BATCH);
+        }
+
         Board board = getBoardById(boardId, currentUser);
 
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new TaskNotFoundException("Task id " + taskId + " not found"));
+        if (!isMember(board, currentUser)) {
+            throw new RuntimeException("You must be a member to add tasks");
+        }
 
-        if (board.getTasks().stream().noneMatch(t -> Objects.equals(t.getId(), task.getId()))) {
-            throw new RuntimeException("Task not in this board");
+        for (Task task : tasks) {
+            task.setId(null);
+            task.setVersion(null);
+            task.setAssignedTo(null);
+            task.setCreatedBy(currentUser);
+            task.setBoard(board);
         }
 
-        Long taskCreatorId = task.getCreatedBy() != null ? task.getCreatedBy().getId() : null;
+        List<Long> ids = taskRepository.saveAll(tasks).stream()
+                .map(Task::getId)
+                .toList();
+        boardRepository.incrementChangeCount(boardId);
+        // Un evento por tarea llenaría las colas de todos los suscriptores: mejor que resincronicen
+        boardEvents.publish(Type.RESYNC, boardId, null, null);
+        return ids;
+    }
+
+    /**
+     * Borra una tarea del board. Pueden hacerlo el creador del board o el de la tarea.
+     * La pertenencia se comprueba con task.board_id y se borra por id: no se carga board.getTasks().
+     */
+    @Transactional
+    public void removeTaskFromBoard(Long boardId, Long taskId, User currentUser){
+        Board board = getBoardById(boardId, currentUser);
+
+        Long taskCreatorId = taskRepository.findCreatorIdByIdAndBoardId(taskId, boardId)
+            .orElseThrow(() -> taskRepository.existsById(taskId)
+                ? new RuntimeException("Task not in this board")
+                : new TaskNotFoundException("Task id " + taskId + " not found"));
+
         Long currentUserId = currentUser != null ? currentUser.getId() : null;
 
         if (!isCreator(board, currentUser) && !Objects.equals(taskCreatorId, currentUserId)) {
             throw new RuntimeException("Not authorized to remove this task");
         }
 
-        board.removeTask(task);
-        boardRepository.save(board);
+        taskRepository.deleteByIdAndBoardId(taskId, boardId);
+        boardRepository.incrementChangeCount(boardId);
+        boardSyncService.recordTaskDeletion(taskId, boardId);
+        boardEvents.publish(Type.TASK_DELETED, boardId, taskId, null);
     }
 
+    // Cambiar 'users' sube la versión del board: dos altas a la vez se serializan con reintentos
     public Board addUserToBoard(Long boardId, Long userId, User currentUser) {
-        Board board = getBoardById(boardId, currentUser);
-
-        if (!isCreator(board, currentUser)) {
-            throw new RuntimeException("Only the creator can add users");
-        }
-
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException("User " + userId + " not found"));
-
-        board.addUser(user);
-        return boardRepository.save(board);
+        return optimisticRetry.execute("Board " + boardId, () -> {
+            Board board = getBoardById(boardId, currentUser);
+
+            if (!isCreator(board, currentUser)) {
+                throw new RuntimeException("Only the creator can add users");
+            }
+
+            User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User " + userId + " not found"));
+
+            boardAclCache.beginChange(boardId);
+            board.addUser(user);
+            Board saved = boardRepository.save(board);
+            boardRepository.incrementChangeCount(boardId);
+            boardEvents.publish(Type.MEMBER_ADDED, boardId, null, userId);
+            return saved;
+        }, () -> currentVersion(boardId));
     }
 
     public void removeUserFromBoard(Long boardId, Long userId, User currentUser){
-        Board board = getBoardById(boardId, currentUser);
-
-        if (!isCreator(board, currentUser)) {
-            throw new RuntimeException("Only the creator can remove users");
-        }
+        optimisticRetry.execute("Board " + boardId, () -> {
+            Board board = getBoardById(boardId, currentUser);
+
+            if (!isCreator(board, currentUser)) {
+                throw new RuntimeException("Only the creator can remove users");
+            }
+
+            User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User " + userId + " not found"));
+
+            boardAclCache.beginChange(boardId);
+            board.removeUser(user);
+            Board saved = boardRepository.save(board);
+            boardRepository.incrementChangeCount(boardId);
+            // También cierra las conexiones de ese usuario a los eventos del board
+            boardEvents.publish(Type.MEMBER_REMOVED, boardId, null, userId);
+            return saved;
+        }, () -> currentVersion(boardId));
+    }
 
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException("User " + userId + " not found"));
+    /**
+     * Tareas del board paginadas por keyset (id ascendente).
+     * 'cursor' es el nextCursor de la página anterior (null para la primera).
+     * Sin cursor ni limit se devuelven todas (ver CursorPage.isUnpaged).
+     */
+    public CursorPage<Task> getTasksFromBoard(Long boardId, User currentUser, String cursor, Integer limit) {
+        getBoardById(boardId, currentUser);
 
-        board.removeUser(user);
-        boardRepository.save(board);
-    }
+        if (CursorPage.isUnpaged(cursor, limit)) {
+            return new CursorPage<>(
+                    taskRepository.findByBoardIdAndIdGreaterThanOrderByIdAsc(boardId, 0L, Limit.unlimited()), null);
+        }
 
-    public Set<Task> getTasksFromBoard(Long boardId, User currentUser) {
-        Board board = getBoardById(boardId, currentUser);
-        return board.getTasks();
+        long afterId = CursorPage.decode(cursor);
+        int pageSize = CursorPage.clampLimit(limit);
+        List<Task> fetched = taskRepository.findByBoardIdAndIdGreaterThanOrderByIdAsc(
+                boardId, afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(fetched, pageSize, Task::getId);
     }
 
     public Set<User> getUsersFromBoard(Long boardId, User currentUser) {
@@ -0,0 +1,156 @@
+package com.crodrigo47.trelloBackend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import com.crodrigo47.trelloBackend.dto.BoardChangesDto;
+import com.crodrigo47.trelloBackend.dto.BoardChildId;
+import com.crodrigo47.trelloBackend.dto.BoardStamp;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.dto.DtoMapper;
+import com.crodrigo47.trelloBackend.dto.Watermark;
+import com.crodrigo47.trelloBackend.exception.BoardNotFoundException;
+import com.crodrigo47.trelloBackend.exception.WatermarkExpiredException;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.TaskTombstone;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+import com.crodrigo47.trelloBackend.repository.TaskTombstoneRepository;
+
+/**
+ * Sincronización incremental: GET /boards/{boardId}/changes?since=<watermark>.
+ * - Altas y modificaciones salen de task.updated_at (índice board_id, updated_at, id); los borrados,
+ *   de task_tombstone, que escriben TaskService.deleteTask y BoardService.removeTaskFromBoard.
+ * - Las dos fuentes se leen por keyset (instante, id) y se mezclan en ese orden, así que el coste
+ *   depende de los cambios y no del tamaño del board.
+ * - updatedAt se fija en el flush, no en el commit: una transacción lenta puede confirmar un cambio
+ *   con un instante anterior a la marca que ya se ha devuelto. Por eso la marca no pasa de
+ *   now - 'overlap' y los cambios de esa ventana se repiten en la siguiente llamada
+ *   (aplicarlos dos veces en el cliente no cambia nada).
+ * - Los tombstones duran 'tombstone-retention'; con una marca más antigua se responde 410
+ *   y el cliente tiene que recargar el board entero.
+ */
+@Service
+public class BoardSyncService {
+
+    private final BoardRepository boardRepository;
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository tombstoneRepository;
+    private final BoardAclCache boardAclCache;
+    private final Duration overlap;
+    private final Duration tombstoneRetention;
+
+    public BoardSyncService(
+            BoardRepository boardRepository,
+            TaskRepository taskRepository,
+            TaskTombstoneRepository tombstoneRepository,
+            BoardAclCache boardAclCache,
+            @Value("${board.changes.overlap:PT5S}") Duration overlap,
+            @Value("${board.changes.tombstone-retention:P7D}") Duration tombstoneRetention
+    ) {
+        this.boardRepository = boardRepository;
+        this.taskRepository = taskRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.boardAclCache = boardAclCache;
+        this.overlap = overlap;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Deja constancia del borrado de una tarea. Se llama dentro de la transacción que la borra.
+     * De paso purga los tombstones del mismo board que ya nadie puede pedir.
+     */
+    public void recordTaskDeletion(Long taskId, Long boardId) {
+        if (taskId == null || boardId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        tombstoneRepository.insert(taskId, boardId, now);
+        tombstoneRepository.deleteByBoardIdAndDeletedAtBefore(boardId, now.minus(tombstoneRetention));
+    }
+
+    // Igual que recordTaskDeletion para una tanda de tareas (borrado de cuentas): se purga una vez por board
+    public void recordTaskDeletions(List<BoardChildId> deleted) {
+        LocalDateTime now = LocalDateTime.now();
+        deleted.stream().filter(d -> d.boardId() != null)
+                .forEach(d -> tombstoneRepository.insert(d.childId(), d.boardId(), now));
+        deleted.stream().map(BoardChildId::boardId).filter(Objects::nonNull).distinct()
+                .forEach(boardId -> tombstoneRepository.deleteByBoardIdAndDeletedAtBefore(
+                        boardId, now.minus(tombstoneRetention)));
+    }
+
+    /**
+     * Tareas creadas o modificadas y ids de tareas borradas después de 'since', como mucho 'limit'
+     * cambios. Sin 'since' devuelve todas las tareas del board (sincronización inicial).
+     */
+    public BoardChangesDto getChangesSince(Long boardId, User currentUser, String since, Integer limit) {
+        authorize(boardId, currentUser);
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Watermark from = Watermark.decode(since);
+        if (from != null && from.at().isBefore(now.minus(tombstoneRetention))) {
+            throw new WatermarkExpiredException("Watermark is older than " + tombstoneRetention + ", reload the board");
+        }
+        Watermark after = from != null ? from : Watermark.START;
+        int pageSize = CursorPage.clampLimit(limit);
+
+        List<Task> tasks = taskRepository.findChangedAfter(
+                boardId, after.at(), after.taskId(), Limit.of(pageSize + 1));
+        // Sin marca el cliente no tiene nada que borrar
+        List<TaskTombstone> tombstones = from == null ? List.of() : tombstoneRepository.findChangedAfter(
+                boardId, after.at(), after.taskId(), Limit.of(pageSize + 1));
+
+        List<Change> changes = Stream.concat(
+                        tasks.stream().map(t -> new Change(new Watermark(t.getUpdatedAt(), t.getId()), t)),
+                        tombstones.stream().map(d -> new Change(new Watermark(d.getDeletedAt(), d.getTaskId()), null)))
+                .sorted(Comparator.comparing(Change::position))
+                .limit(pageSize + 1)
+                .toList();
+        boolean hasMore = changes.size() > pageSize;
+        List<Change> page = hasMore ? changes.subList(0, pageSize) : changes;
+
+        Watermark horizon = new Watermark(now.minus(overlap), Long.MAX_VALUE);
+        Watermark next = horizon;
+        if (hasMore) {
+            Watermark last = page.get(page.size() - 1).position();
+            next = last.compareTo(horizon) < 0 ? last : horizon;
+            // Una tanda llena entera dentro de la ventana: se avanza igualmente para no repetirla sin fin
+            if (next.compareTo(after) <= 0) {
+                next = last;
+            }
+        } else if (next.compareTo(after) < 0) {
+            next = after;
+        }
+
+        return new BoardChangesDto(
+                page.stream().map(Change::task).filter(Objects::nonNull).map(DtoMapper::toTaskDto).toList(),
+                page.stream().filter(c -> c.task() == null).map(c -> c.position().taskId()).toList(),
+                next.encode(),
+                hasMore);
+    }
+
+    // Misma autorización que BoardService.getBoardEtag: una consulta de columnas sueltas
+    private void authorize(Long boardId, User currentUser) {
+        BoardStamp stamp = boardRepository.findStampById(boardId)
+            .orElseThrow(() -> new BoardNotFoundException("Board not found"));
+
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        boolean creator = userId != null && userId.equals(stamp.createdById());
+        if (!creator && !boardAclCache.isMember(boardId, userId, stamp.changeCount())) {
+            throw new RuntimeException("Not authorized to access this board");
+        }
+    }
+
+    // Un cambio en la línea temporal del board; task == null es un borrado
+    private record Change(Watermark position, Task task) {}
+}
@@ -0,0 +1,107 @@
+package com.crodrigo47.trelloBackend.service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crodrigo47.trelloBackend.exception.ConcurrentUpdateException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reintentos de las modificaciones idempotentes de Board y Task frente a @Version.
+ * - Cada intento es una transacción nueva: relee la entidad, aplica el cambio y hace commit.
+ * - Si otra escritura ganó la carrera (OptimisticLockingFailureException) se espera un tiempo
+ *   aleatorio entre 0 y base-delay * 2^(intento-1), con tope en max-delay, y se repite.
+ * - Agotados los intentos: ConcurrentUpdateException (409) con la versión actual.
+ * Dentro de una transacción ya abierta se ejecuta una sola vez: el contexto de persistencia
+ * conserva la versión vieja y reintentar ahí no serviría de nada.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public OptimisticRetry(
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${optimistic-lock.retry.max-attempts:5}") int maxAttempts,
+            @Value("${optimistic-lock.retry.base-delay:PT0.01S}") Duration baseDelay,
+            @Value("${optimistic-lock.retry.max-delay:PT0.2S}") Duration maxDelay
+    ) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayNanos = Math.max(0, baseDelay.toNanos());
+        this.maxDelayNanos = Math.max(this.baseDelayNanos, maxDelay.toNanos());
+        this.retries = Counter.builder("optimistic.lock.retries")
+                .description("Attempts repeated after losing an optimistic locking race")
+                .register(meterRegistry);
+        this.exhausted = Counter.builder("optimistic.lock.exhausted")
+                .description("Modifications rejected with 409 after running out of retries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta 'action' con reintentos. 'resource' solo se usa en el mensaje del 409
+     * y 'currentVersion' se consulta únicamente si se agotan los intentos.
+     */
+    public <T> T execute(String resource, Supplier<T> action, Supplier<Long> currentVersion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(s -> action.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw new ConcurrentUpdateException(
+                            resource + " was modified concurrently, try again", currentVersion.get());
+                }
+                retries.increment();
+                pause(attempt, resource, currentVersion);
+            }
+        }
+    }
+
+    /**
+     * El cliente editó sobre la versión 'expected' y ya hay otra: reintentar no arregla nada,
+     * se rechaza directamente. Sin versión en la petición (null) no se comprueba.
+     */
+    public static void requireVersion(String resource, Long expected, Long actual) {
+        if (expected != null && !Objects.equals(expected, actual)) {
+            throw new ConcurrentUpdateException(
+                    resource + " is at version " + actual + ", not " + expected, actual);
+        }
+    }
+
+    // Full jitter: evita que los escritores que chocaron vuelvan a chocar en el mismo instante
+    private void pause(int attempt, String resource, Supplier<Long> currentVersion) {
+        long ceiling = Math.min(maxDelayNanos, baseDelayNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException(resource + " was modified concurrently, try again", currentVersion.get());
+        }
+    }
+}
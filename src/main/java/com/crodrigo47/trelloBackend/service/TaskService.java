@@ -1,11 +1,16 @@
 package com.crodrigo47.trelloBackend.service;
 
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import com.crodrigo47.trelloBackend.dto.BoardEventDto.Type;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.dto.TaskStamp;
 import com.crodrigo47.trelloBackend.exception.TaskNotFoundException;
 import com.crodrigo47.trelloBackend.model.Board;
 import com.crodrigo47.trelloBackend.model.Task;
@@ -13,15 +18,27 @@ import com.crodrigo47.trelloBackend.model.User;
 import com.crodrigo47.trelloBackend.repository.BoardRepository;
 import com.crodrigo47.trelloBackend.repository.TaskRepository;
 
+import jakarta.transaction.Transactional;
+
 @Service
 public class TaskService {
 
     private final TaskRepository taskRepository;
     private final BoardRepository boardRepository;
-
-    public TaskService(TaskRepository taskRepository, BoardRepository boardRepository){
+    private final BoardAclCache boardAclCache;
+    private final OptimisticRetry optimisticRetry;
+    private final BoardSyncService boardSyncService;
+    private final BoardEventBroadcaster boardEvents;
+
+    public TaskService(TaskRepository taskRepository, BoardRepository boardRepository, BoardAclCache boardAclCache,
+                       OptimisticRetry optimisticRetry, BoardSyncService boardSyncService,
+                       BoardEventBroadcaster boardEvents){
         this.taskRepository = taskRepository;
         this.boardRepository = boardRepository;
+        this.boardAclCache = boardAclCache;
+        this.optimisticRetry = optimisticRetry;
+        this.boardSyncService = boardSyncService;
+        this.boardEvents = boardEvents;
     }
 
     private boolean isCreatorOnBoard(Board board, User user) {
@@ -34,21 +51,15 @@ public class TaskService {
         return creator.getUsername() != null && creator.getUsername().equals(user.getUsername());
     }
 
+    // BoardAclCache (o consulta indexada sobre board_user): no inicializa board.getUsers()
     private boolean isMemberOfBoard(Board board, User user) {
-        if (board == null || board.getUsers() == null || user == null) return false;
-
-        if (user.getId() != null) {
-            return board.getUsers().stream()
-                    .anyMatch(u -> u != null && u.getId() != null && Objects.equals(u.getId(), user.getId()));
-        }
-
-        return board.getUsers().stream()
-                .anyMatch(u -> u == user || (u.getUsername() != null && u.getUsername().equals(user.getUsername())));
+        if (board == null || user == null) return false;
+        return boardAclCache.isMember(board.getId(), user.getId(), board.getChangeCount());
     }
 
     /**
      * A helper that ensures we have a fully loaded Board instance:
-     * - if provided Board already has createdBy or users, use it
+     * - if provided Board already has createdBy, use it
      * - else, if it has id, load from repository
      * - else return null
      */
@@ -57,7 +68,7 @@ public class TaskService {
         Board b = task.getBoard();
 
         // if board already has useful info, return it (keeps compatibility with unit tests)
-        if ((b.getCreatedBy() != null) || (b.getUsers() != null && !b.getUsers().isEmpty())) {
+        if (b.getCreatedBy() != null) {
             return b;
         }
 
@@ -70,18 +81,41 @@ public class TaskService {
         return null;
     }
 
+    /**
+     * ETag de GET /tasks/{id}: id, versión y updatedAt de la tarea.
+     * Misma autorización que getTaskById, pero con una consulta de columnas sueltas
+     * (sin cargar la tarea, su board ni sus usuarios) para poder responder 304 directamente.
+     */
+    public String getTaskEtag(Long id, User currentUser) {
+        TaskStamp stamp = taskRepository.findStampById(id)
+            .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+
+        Long userId = currentUser != null ? currentUser.getId() : null;
+        boolean boardCreator = userId != null && userId.equals(stamp.boardCreatorId());
+        if (stamp.boardId() == null
+                || !boardCreator && !boardAclCache.isMember(stamp.boardId(), userId, stamp.boardChangeCount())) {
+            throw new RuntimeException("Not authorized to access this task");
+        }
+
+        // updatedAt en microsegundos: la versión ya cubre los cambios que no pasan por @PreUpdate
+        long updatedAt = stamp.updatedAt() == null ? 0
+                : stamp.updatedAt().toEpochSecond(ZoneOffset.UTC) * 1_000_000 + stamp.updatedAt().getNano() / 1_000;
+        return "t" + id + "." + stamp.version() + "." + updatedAt;
+    }
+
     public Task getTaskById(Long id, User currentUser){
         Task task = taskRepository.findById(id)
             .orElseThrow(() -> new TaskNotFoundException("Task not found"));
 
         Board board = task.getBoard();
-        if (!isMemberOfBoard(board, currentUser) && !isCreatorOnBoard(board, currentUser)) {
+        if (!isCreatorOnBoard(board, currentUser) && !isMemberOfBoard(board, currentUser)) {
             throw new RuntimeException("Not authorized to access this task");
         }
 
         return task;
     }
 
+    @Transactional
     public Task createTask(Task task, User currentUser){
         // resolver board (puede venir solo con id desde el JSON)
         Board board = resolveBoardFromTask(task);
@@ -93,60 +127,101 @@ public class TaskService {
         task.setBoard(board);
 
         // comprobar membresía o que sea creador
-        boolean member = isMemberOfBoard(board, currentUser);
-        boolean creator = isCreatorOnBoard(board, currentUser);
-
-        if (!member && !creator) {
+        if (!isCreatorOnBoard(board, currentUser) && !isMemberOfBoard(board, currentUser)) {
             throw new RuntimeException("You must be a member of the board to add tasks");
         }
 
+        // Siempre alta nueva: id y version del cuerpo se ignoran
+        task.setId(null);
+        task.setVersion(null);
         task.setCreatedBy(currentUser);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        boardRepository.incrementChangeCount(board.getId());
+        boardEvents.publishTask(Type.TASK_CREATED, saved);
+        return saved;
     }
 
+    /**
+     * Si el cuerpo trae 'version' y ya no es la actual se rechaza con 409: el cliente editó
+     * sobre datos viejos. Las carreras entre la lectura y el commit se reintentan (OptimisticRetry).
+     */
     public Task updateTask(Task task, User currentUser){
-        Task existing = getTaskById(task.getId(), currentUser);
-        existing.setTitle(task.getTitle());
-        existing.setDescription(task.getDescription());
-        existing.setStatus(task.getStatus());
-        return taskRepository.save(existing);
+        Long taskId = task.getId();
+        return optimisticRetry.execute("Task " + taskId, () -> {
+            Task existing = getTaskById(taskId, currentUser);
+            OptimisticRetry.requireVersion("Task " + taskId, task.getVersion(), existing.getVersion());
+            existing.setTitle(task.getTitle());
+            existing.setDescription(task.getDescription());
+            existing.setStatus(task.getStatus());
+            return saveAndTouchBoard(existing, Type.TASK_UPDATED);
+        }, () -> currentVersion(taskId));
     }
 
+    @Transactional
     public void deleteTask(Long id, User currentUser){
         Task task = getTaskById(id, currentUser);
         taskRepository.delete(task);
+        touchBoard(task);
+        Long boardId = task.getBoard() != null ? task.getBoard().getId() : null;
+        boardSyncService.recordTaskDeletion(id, boardId);
+        boardEvents.publish(Type.TASK_DELETED, boardId, id, null);
     }
 
     public Task assignTaskToUser(Long taskId, User currentUser, User assignee){
-        Task task = getTaskById(taskId, currentUser);
+        return optimisticRetry.execute("Task " + taskId, () -> {
+            Task task = getTaskById(taskId, currentUser);
 
-        // comprobar que el assignee es miembro del board (mismo criterio tolerante)
-        Board board = task.getBoard();
-        boolean assigneeIsMember = false;
-        if (assignee.getId() != null) {
-            assigneeIsMember = board.getUsers().stream()
-                    .anyMatch(u -> u != null && u.getId() != null && Objects.equals(u.getId(), assignee.getId()));
-        } else {
-            assigneeIsMember = board.getUsers().stream()
-                    .anyMatch(u -> u == assignee || (u.getUsername() != null && u.getUsername().equals(assignee.getUsername())));
-        }
+            // comprobar que el assignee es miembro del board
+            boolean assigneeIsMember = isMemberOfBoard(task.getBoard(), assignee);
 
-        if (!assigneeIsMember) {
-            throw new RuntimeException("The user to assign must be a member of the board");
-        }
+            if (!assigneeIsMember) {
+                throw new RuntimeException("The user to assign must be a member of the board");
+            }
 
-        task.assignUser(assignee);
-        return taskRepository.save(task);
+            task.assignUser(assignee);
+            return saveAndTouchBoard(task, Type.TASK_ASSIGNED);
+        }, () -> currentVersion(taskId));
     }
 
     public Task unassignTaskFromUser(Long taskId, User currentUser){
-        Task task = getTaskById(taskId, currentUser);
-        task.unassignUser();
-        return taskRepository.save(task);
+        return optimisticRetry.execute("Task " + taskId, () -> {
+            Task task = getTaskById(taskId, currentUser);
+            task.unassignUser();
+            return saveAndTouchBoard(task, Type.TASK_UNASSIGNED);
+        }, () -> currentVersion(taskId));
+    }
+
+    // Cualquier cambio de una tarea cambia también el ETag de su board y de sus listados,
+    // y se avisa a los suscriptores del board tras el commit
+    private Task saveAndTouchBoard(Task task, Type event) {
+        Task saved = taskRepository.save(task);
+        touchBoard(task);
+        boardEvents.publishTask(event, saved);
+        return saved;
+    }
+
+    private void touchBoard(Task task) {
+        if (task.getBoard() != null && task.getBoard().getId() != null) {
+            boardRepository.incrementChangeCount(task.getBoard().getId());
+        }
     }
 
-    public List<Task> getTasksByBoard(Long boardId, Long userId) {
-        return taskRepository.findByBoardIdAndBoardUsersId(boardId, userId);
+    private Long currentVersion(Long taskId) {
+        return taskRepository.findVersionById(taskId).orElse(null);
+    }
+
+    // Paginado por keyset (id ascendente), o todas sin cursor ni limit (ver CursorPage.isUnpaged);
+    // solo devuelve tareas si 'userId' es miembro del board
+    public CursorPage<Task> getTasksByBoard(Long boardId, Long userId, String cursor, Integer limit) {
+        if (CursorPage.isUnpaged(cursor, limit)) {
+            return new CursorPage<>(taskRepository.findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(
+                    boardId, userId, 0L, Limit.unlimited()), null);
+        }
+        long afterId = CursorPage.decode(cursor);
+        int pageSize = CursorPage.clampLimit(limit);
+        List<Task> fetched = taskRepository.findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(
+                boardId, userId, afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(fetched, pageSize, Task::getId);
     }
 
     public List<Task> getTasksByUser(Long userId, Long memberId) {
@@ -1,35 +1,107 @@
 package com.crodrigo47.trelloBackend.service;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.crodrigo47.trelloBackend.dto.AccountDeletionDto;
+import com.crodrigo47.trelloBackend.dto.BoardEventDto.Type;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.dto.DtoMapper;
+import com.crodrigo47.trelloBackend.dto.UserChildId;
+import com.crodrigo47.trelloBackend.dto.UserDto;
+import com.crodrigo47.trelloBackend.dto.UserRow;
 import com.crodrigo47.trelloBackend.dto.UserSearchDto;
 import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.LikePatterns;
 import com.crodrigo47.trelloBackend.repository.UserRepository;
 
+import jakarta.transaction.Transactional;
+
 @Service
 public class UserService {
+
+    private static final int STREAM_CHUNK_SIZE = 500;
     
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final AccountDeletionService accountDeletionService;
+    private final BoardRepository boardRepository;
+    private final BoardEventBroadcaster boardEvents;
 
-    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder){
+    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder,
+                       AccountDeletionService accountDeletionService, BoardRepository boardRepository,
+                       BoardEventBroadcaster boardEvents){
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.accountDeletionService = accountDeletionService;
+        this.boardRepository = boardRepository;
+        this.boardEvents = boardEvents;
     }
 
     public Optional<User> getUserById(Long id){
         return userRepository.findById(id);
     }
 
-    // Solo accesible para ADMIN
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // Solo accesible para ADMIN: página por keyset con un número fijo de consultas
+    public CursorPage<UserDto> getUsersPage(String cursor, Integer limit) {
+        long afterId = CursorPage.decode(cursor);
+        int pageSize = CursorPage.clampLimit(limit);
+        List<UserRow> rows = userRepository.findRowsAfter(afterId, Limit.of(pageSize + 1));
+        CursorPage<UserRow> page = CursorPage.of(rows, pageSize, UserRow::id);
+        return new CursorPage<>(toUserDtos(page.items()), page.nextCursor());
+    }
+
+    /**
+     * Solo accesible para ADMIN: recorre todos los usuarios con un cursor JDBC de solo avance
+     * y los entrega a 'sink' por bloques, de modo que la memoria no crece con el número de usuarios.
+     */
+    @Transactional
+    public void streamAllUsers(Consumer<UserDto> sink) {
+        try (Stream<UserRow> rows = userRepository.streamAllRows()) {
+            List<UserRow> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            Iterator<UserRow> it = rows.iterator();
+            while (it.hasNext()) {
+                chunk.add(it.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !it.hasNext()) {
+                    toUserDtos(chunk).forEach(sink);
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
+    private List<UserDto> toUserDtos(List<UserRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> userIds = rows.stream().map(UserRow::id).toList();
+        Map<Long, Set<Long>> boardIds = groupByUser(userRepository.findBoardIdsByUserIds(userIds));
+        Map<Long, Set<Long>> taskIds = groupByUser(userRepository.findTaskIdsByUserIds(userIds));
+
+        return rows.stream()
+                .map(row -> DtoMapper.toUserDto(row,
+                        boardIds.getOrDefault(row.id(), Set.of()),
+                        taskIds.getOrDefault(row.id(), Set.of())))
+                .toList();
+    }
+
+    private static Map<Long, Set<Long>> groupByUser(List<UserChildId> ids) {
+        return ids.stream().collect(Collectors.groupingBy(UserChildId::userId,
+                Collectors.mapping(UserChildId::childId, Collectors.toSet())));
     }
 
     public boolean existsByUsername(String username) {
@@ -42,18 +114,43 @@ public class UserService {
 
     public List<UserSearchDto> searchUsersByPrefix(String prefix, int limit) {
         var pageable = PageRequest.of(0, Math.max(1, limit));
-        return userRepository.searchByUsernamePrefix(prefix, pageable);
+        return userRepository.searchByUsernamePrefix(LikePatterns.escape(prefix), pageable);
     }
 
+    @Transactional
     public User updateUser(User user){
+        boolean renamed = user.getId() != null && userRepository.findStoredUsernameById(user.getId())
+                .filter(stored -> !stored.equals(user.getUsername()))
+                .isPresent();
         if (user.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (renamed) {
+            touchMemberBoards(saved.getId());
+        }
+        return saved;
+    }
+
+    // El snapshot de un board lleva los nombres de sus miembros: su ETag deja de valer al renombrar
+    private void touchMemberBoards(Long userId) {
+        List<Long> boardIds = boardRepository.findIdsByMemberId(userId, Limit.unlimited());
+        if (!boardIds.isEmpty()) {
+            boardRepository.incrementChangeCounts(boardIds);
+            boardIds.forEach(boardId -> boardEvents.publish(Type.RESYNC, boardId, null, null));
+        }
+    }
+
+    /**
+     * Pide el borrado de la cuenta. Se hace en segundo plano y por tandas (AccountDeletionService):
+     * devuelve el estado para que el cliente pueda seguir el progreso.
+     */
+    public AccountDeletionDto deleteUser(Long id){
+        return DtoMapper.toAccountDeletionDto(accountDeletionService.request(id));
     }
 
-    public void deleteUser(Long id){
-        userRepository.deleteById(id);
+    public Optional<AccountDeletionDto> getAccountDeletion(Long id) {
+        return accountDeletionService.getStatus(id).map(DtoMapper::toAccountDeletionDto);
     }
 
     public User getCurrentUser() {
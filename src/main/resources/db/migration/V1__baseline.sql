@@ -0,0 +1,43 @@
+-- Esquema base: lo que ddl-auto=update había ido creando a partir de las entidades.
+-- Las bases ya existentes se marcan con baseline (versión 1) y empiezan en V2.
+
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT ck_users_role CHECK (role IN ('USER', 'ADMIN'))
+);
+
+CREATE TABLE board (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name          VARCHAR(255),
+    description   VARCHAR(255),
+    created_by_id BIGINT,
+    CONSTRAINT fk_board_created_by FOREIGN KEY (created_by_id) REFERENCES users (id)
+);
+
+CREATE TABLE board_user (
+    board_id BIGINT NOT NULL,
+    user_id  BIGINT NOT NULL,
+    PRIMARY KEY (board_id, user_id),
+    CONSTRAINT fk_board_user_board FOREIGN KEY (board_id) REFERENCES board (id),
+    CONSTRAINT fk_board_user_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE task (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title          VARCHAR(255),
+    description    VARCHAR(255),
+    status         VARCHAR(255),
+    assigned_to_id BIGINT,
+    created_by_id  BIGINT NOT NULL,
+    board_id       BIGINT,
+    created_at     TIMESTAMP(6),
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT ck_task_status CHECK (status IN ('FUTURE', 'IN_PROGRESS', 'DONE')),
+    CONSTRAINT fk_task_assigned_to FOREIGN KEY (assigned_to_id) REFERENCES users (id),
+    CONSTRAINT fk_task_created_by FOREIGN KEY (created_by_id) REFERENCES users (id),
+    CONSTRAINT fk_task_board FOREIGN KEY (board_id) REFERENCES board (id)
+);
@@ -0,0 +1,9 @@
+-- Índices de las rutas calientes (membresía de board y listados de tareas).
+-- IF NOT EXISTS: en bases que venían de ddl-auto=update puede que ya estén creados.
+
+CREATE INDEX IF NOT EXISTS idx_board_user_board_user ON board_user (board_id, user_id);
+CREATE INDEX IF NOT EXISTS idx_board_user_user_board ON board_user (user_id, board_id);
+
+CREATE INDEX IF NOT EXISTS idx_task_board_status ON task (board_id, status);
+CREATE INDEX IF NOT EXISTS idx_task_board_id ON task (board_id, id);
+CREATE INDEX IF NOT EXISTS idx_task_assigned_to ON task (assigned_to_id);
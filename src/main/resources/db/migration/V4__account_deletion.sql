@@ -0,0 +1,17 @@
+-- Peticiones de borrado de cuenta y su progreso (AccountDeletionService).
+-- Sin FK a users: la fila sobrevive al usuario para poder consultar el resultado.
+
+CREATE TABLE account_deletion (
+    user_id        BIGINT PRIMARY KEY,
+    phase          VARCHAR(255) NOT NULL,
+    processed_rows BIGINT NOT NULL DEFAULT 0,
+    requested_at   TIMESTAMP(6) NOT NULL,
+    updated_at     TIMESTAMP(6) NOT NULL,
+    finished_at    TIMESTAMP(6)
+);
+
+CREATE INDEX idx_account_deletion_phase ON account_deletion (phase);
+
+-- Las fases recorren las tareas y boards del usuario por estas columnas
+CREATE INDEX IF NOT EXISTS idx_task_created_by ON task (created_by_id);
+CREATE INDEX IF NOT EXISTS idx_board_created_by ON board (created_by_id);
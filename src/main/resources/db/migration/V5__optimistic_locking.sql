@@ -0,0 +1,4 @@
+-- Bloqueo optimista (@Version) en Board y Task. Las filas existentes empiezan en 0.
+
+ALTER TABLE board ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE task ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
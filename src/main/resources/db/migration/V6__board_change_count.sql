@@ -0,0 +1,4 @@
+-- Contador de cambios por board (ETag de GET /boards/{id} y de sus tareas).
+-- Sube con cualquier cambio del board, de sus miembros o de sus tareas.
+
+ALTER TABLE board ADD COLUMN change_count BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,13 @@
+-- Sincronización incremental de boards (GET /boards/{boardId}/changes, ver BoardSyncService).
+-- Altas y modificaciones se leen de task.updated_at; los borrados, de task_tombstone.
+
+CREATE INDEX IF NOT EXISTS idx_task_board_updated ON task (board_id, updated_at, id);
+
+-- Sin FK a board ni a task: la tarea ya no existe y los del board los borra BoardDeleter
+CREATE TABLE task_tombstone (
+    task_id    BIGINT PRIMARY KEY,
+    board_id   BIGINT NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_task_tombstone_board_deleted ON task_tombstone (board_id, deleted_at, task_id);
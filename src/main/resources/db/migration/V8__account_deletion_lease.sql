@@ -0,0 +1,5 @@
+-- Lease de las peticiones de borrado (AccountDeletionService): con varios nodos, solo el que
+-- tiene el lease vigente procesa cada petición. Si el nodo cae, otro la retoma al caducar.
+
+ALTER TABLE account_deletion ADD COLUMN locked_by VARCHAR(255);
+ALTER TABLE account_deletion ADD COLUMN locked_until TIMESTAMP(6);
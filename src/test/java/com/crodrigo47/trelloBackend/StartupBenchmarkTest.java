@@ -0,0 +1,119 @@
+package com.crodrigo47.trelloBackend;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tiempo hasta "ready" arrancando contra una base ya poblada: ddl-auto=update (como antes)
+ * frente a Flyway + validate. No corre con el resto de tests:
+ *
+ *   mvn test -Dtest=StartupBenchmarkTest -Dbenchmark=true
+ *
+ * Usa un H2 en fichero en modo PostgreSQL; contra Postgres real la diferencia es mayor,
+ * porque update introspecta el catálogo tabla a tabla.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBenchmarkTest {
+
+    private static final int WARMUP = 2;
+    private static final int RUNS = 5;
+
+    private static String url;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        Path dir = Files.createTempDirectory("startup-bench");
+        url = "jdbc:h2:file:" + dir.resolve("db") + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+        try (ConfigurableApplicationContext ctx = boot(Map.of())) {
+            JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+            List<Object[]> users = new ArrayList<>();
+            for (int u = 1; u <= 2_000; u++) {
+                users.add(new Object[]{u, "user" + u, "x", "USER"});
+            }
+            jdbc.batchUpdate("INSERT INTO users (id, username, password, role) VALUES (?, ?, ?, ?)", users);
+
+            List<Object[]> boards = new ArrayList<>();
+            List<Object[]> members = new ArrayList<>();
+            List<Object[]> tasks = new ArrayList<>();
+            for (int b = 1; b <= 1_000; b++) {
+                int owner = (b % 2_000) + 1;
+                boards.add(new Object[]{b, "board" + b, owner});
+                for (int m = 0; m < 5; m++) {
+                    members.add(new Object[]{b, ((b + m) % 2_000) + 1});
+                }
+                for (int t = 0; t < 50; t++) {
+                    tasks.add(new Object[]{(b - 1) * 50 + t + 1, "t" + t, "FUTURE", b, owner, owner});
+                }
+            }
+            jdbc.batchUpdate("INSERT INTO board (id, name, created_by_id) VALUES (?, ?, ?)", boards);
+            jdbc.batchUpdate("INSERT INTO board_user (board_id, user_id) VALUES (?, ?)", members);
+            jdbc.batchUpdate("INSERT INTO task (id, title, status, board_id, created_by_id, assigned_to_id) VALUES (?, ?, ?, ?, ?, ?)", tasks);
+        }
+    }
+
+    @Test
+    void compareTimeToReady() {
+        long[] update = measure(Map.of(
+                "spring.flyway.enabled", "false",
+                "spring.jpa.hibernate.ddl-auto", "update"));
+        long[] migrations = measure(Map.of(
+                "spring.flyway.enabled", "true",
+                "spring.jpa.hibernate.ddl-auto", "validate"));
+
+        System.out.printf("time-to-ready ddl-auto=update     median %d ms %s%n", median(update), Arrays.toString(update));
+        System.out.printf("time-to-ready flyway + validate   median %d ms %s%n", median(migrations), Arrays.toString(migrations));
+    }
+
+    private static long[] measure(Map<String, Object> props) {
+        for (int i = 0; i < WARMUP; i++) {
+            boot(props).close();
+        }
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            ConfigurableApplicationContext ctx = boot(props);
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+            ctx.close();
+        }
+        return millis;
+    }
+
+    private static ConfigurableApplicationContext boot(Map<String, Object> props) {
+        Map<String, Object> all = new HashMap<>(props);
+        all.put("spring.datasource.url", url);
+        all.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        all.put("spring.datasource.username", "sa");
+        all.put("spring.datasource.password", "");
+        all.put("spring.jpa.show-sql", "false");
+        all.put("server.port", "0");
+        all.put("jwt.secret", "supersecuretestkeythatisatleast32bytes!");
+        all.putIfAbsent("spring.flyway.enabled", "true");
+        all.putIfAbsent("spring.jpa.hibernate.ddl-auto", "validate");
+        // Como argumentos: tienen que pisar lo que trae application.properties
+        String[] args = all.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
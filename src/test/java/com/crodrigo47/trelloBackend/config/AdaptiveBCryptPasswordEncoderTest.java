@@ -0,0 +1,48 @@
+package com.crodrigo47.trelloBackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void costOf_readsCostFromHash() {
+        String hash = new BCryptPasswordEncoder(5).encode("secret");
+
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf(hash)).isEqualTo(5);
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf("plain-text")).isEqualTo(-1);
+        assertThat(AdaptiveBCryptPasswordEncoder.costOf(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void upgradeEncoding_trueForLowerAndHigherCost() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void calibrate_neverGoesBelowMinimumStrength() {
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrate(Duration.ZERO, 6)).isEqualTo(6);
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrate(Duration.ZERO, 1))
+                .isEqualTo(AdaptiveBCryptPasswordEncoder.MIN_STRENGTH);
+    }
+
+    @Test
+    void calibrate_raisesStrengthUntilTargetIsReached() {
+        Duration target = Duration.ofMillis(2);
+
+        int strength = AdaptiveBCryptPasswordEncoder.calibrate(target, AdaptiveBCryptPasswordEncoder.MIN_STRENGTH);
+
+        assertThat(strength).isBetween(AdaptiveBCryptPasswordEncoder.MIN_STRENGTH, AdaptiveBCryptPasswordEncoder.MAX_STRENGTH);
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(strength + 1).encode("secret");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(target);
+    }
+}
@@ -0,0 +1,111 @@
+package com.crodrigo47.trelloBackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.service.AccountDeletionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil("supersecuretestkeythatisatleast32bytes!", 3600000);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final AccountDeletionService accountDeletionService = mock(AccountDeletionService.class);
+    private final VerifiedTokenCache tokenCache =
+            new VerifiedTokenCache(false, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenWithUserClaims_authenticatesWithoutUserLookup() throws Exception {
+        User alice = Builders.buildUserWithId("alice", 5L);
+        String token = jwtUtil.generateToken(new CustomUserDetails(alice));
+
+        doFilter(new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenCache, accountDeletionService, true), token);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth).isNotNull();
+        assertThat(auth.getPrincipal()).isEqualTo(new AuthenticatedUser(5L, "alice", User.Role.USER));
+        assertThat(auth.getName()).isEqualTo("alice");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void tokenWithoutUserClaims_fallsBackToUserLookup() throws Exception {
+        User alice = Builders.buildUserWithId("alice", 5L);
+        String token = jwtUtil.generateToken(Map.of(), new CustomUserDetails(alice));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(alice));
+
+        doFilter(new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenCache, accountDeletionService, true), token);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth.getPrincipal()).isEqualTo(new AuthenticatedUser(5L, "alice", User.Role.USER));
+        verify(userDetailsService).loadUserByUsername("alice");
+    }
+
+    @Test
+    void statelessPrincipalDisabled_alwaysLoadsUser() throws Exception {
+        User alice = Builders.buildUserWithId("alice", 5L);
+        String token = jwtUtil.generateToken(new CustomUserDetails(alice));
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(new CustomUserDetails(alice));
+
+        doFilter(new JwtAuthenticationFilter(jwtUtil, userDetailsService, tokenCache, accountDeletionService, false), token);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(userDetailsService).loadUserByUsername("alice");
+    }
+
+    @Test
+    void pendingAccountDeletion_doesNotAuthenticateAndEvictsCachedToken() throws Exception {
+        User alice = Builders.buildUserWithId("alice", 5L);
+        String token = jwtUtil.generateToken(new CustomUserDetails(alice));
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, cache, accountDeletionService, true);
+
+        doFilter(filter, token);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(cache.size()).isEqualTo(1);
+
+        SecurityContextHolder.clearContext();
+        when(accountDeletionService.isPending(5L)).thenReturn(true);
+        doFilter(filter, token);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(cache.size()).isZero();
+
+        // Solo puede seguir el progreso del borrado
+        doFilter(filter, token, "/users/5/deletion");
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+    }
+
+    private void doFilter(JwtAuthenticationFilter filter, String token) throws Exception {
+        doFilter(filter, token, "/boards");
+    }
+
+    private void doFilter(JwtAuthenticationFilter filter, String token, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
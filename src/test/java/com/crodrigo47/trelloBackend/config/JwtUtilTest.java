@@ -0,0 +1,79 @@
+package com.crodrigo47.trelloBackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.User;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "supersecuretestkeythatisatleast32bytes!";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 3600000);
+
+    @Test
+    void parseToken_returnsSubjectDatesAndClaims() {
+        User user = Builders.buildUserWithId("alice", 1L);
+        String token = jwtUtil.generateToken(Map.of("scope", "boards"), new CustomUserDetails(user));
+
+        JwtToken parsed = jwtUtil.parseToken(token);
+
+        assertThat(parsed.subject()).isEqualTo("alice");
+        assertThat(parsed.issuedAt()).isNotNull();
+        assertThat(parsed.expiration()).isAfter(parsed.issuedAt());
+        assertThat(parsed.isExpired()).isFalse();
+        assertThat(parsed.claim("scope", String.class)).isEqualTo("boards");
+        assertThat(parsed.claims()).isUnmodifiable();
+    }
+
+    @Test
+    void validateToken_withParsedToken_matchesUserDetails() {
+        User alice = Builders.buildUserWithId("alice", 1L);
+        User bob = Builders.buildUserWithId("bob", 2L);
+        JwtToken parsed = jwtUtil.parseToken(jwtUtil.generateToken(new CustomUserDetails(alice)));
+
+        assertThat(jwtUtil.validateToken(parsed, new CustomUserDetails(alice))).isTrue();
+        assertThat(jwtUtil.validateToken(parsed, new CustomUserDetails(bob))).isFalse();
+        assertThat(parsed.isExpired(Instant.now().plusSeconds(7200))).isTrue();
+    }
+
+    @Test
+    void generateToken_embedsUserIdAndRole() {
+        User user = Builders.buildUserWithId("alice", 7L);
+        JwtToken parsed = jwtUtil.parseToken(jwtUtil.generateToken(new CustomUserDetails(user)));
+
+        AuthenticatedUser principal = AuthenticatedUser.from(parsed);
+
+        assertThat(principal).isNotNull();
+        assertThat(principal.id()).isEqualTo(7L);
+        assertThat(principal.getName()).isEqualTo("alice");
+        assertThat(principal.role()).isEqualTo(User.Role.USER);
+    }
+
+    @Test
+    void parseToken_rejectsTokenSignedWithAnotherKey() {
+        JwtUtil other = new JwtUtil("anothersecuretestkeythatisatleast32bytes", 3600000);
+        String token = other.generateToken(new CustomUserDetails(Builders.buildUserWithId("alice", 1L)));
+
+        assertThatThrownBy(() -> jwtUtil.parseToken(token))
+                .isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void parseToken_rejectsExpiredToken() {
+        JwtUtil shortLived = new JwtUtil(SECRET, -1000);
+        String token = shortLived.generateToken(new CustomUserDetails(Builders.buildUserWithId("alice", 1L)));
+
+        assertThatThrownBy(() -> jwtUtil.parseToken(token))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+}
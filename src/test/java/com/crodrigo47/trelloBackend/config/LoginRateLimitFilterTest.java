@@ -0,0 +1,142 @@
+package com.crodrigo47.trelloBackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginRateLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LoginRateLimitFilter filter(int ipCapacity, int usernameCapacity) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("meterRegistry", registry);
+        return new LoginRateLimitFilter(new ObjectMapper().findAndRegisterModules(), beans.getBeanProvider(MeterRegistry.class), true,
+                ipCapacity, Duration.ofMinutes(1), usernameCapacity, Duration.ofMinutes(1), 1000);
+    }
+
+    private static MockHttpServletRequest login(String ip, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"pw\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletResponse run(LoginRateLimitFilter filter, MockHttpServletRequest request)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void sameUsername_fromManyIps_isThrottled() throws Exception {
+        LoginRateLimitFilter filter = filter(100, 2);
+
+        assertThat(run(filter, login("10.0.0.1", "alice")).getStatus()).isEqualTo(200);
+        assertThat(run(filter, login("10.0.0.2", "alice")).getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = run(filter, login("10.0.0.3", "alice"));
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(run(filter, login("10.0.0.3", "bob")).getStatus()).isEqualTo(200);
+        assertThat(registry.get("auth.login.rate-limited").tag("key", "username").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void sameIp_withManyUsernames_isThrottled() throws Exception {
+        LoginRateLimitFilter filter = filter(2, 100);
+
+        run(filter, login("10.0.0.1", "u1"));
+        run(filter, login("10.0.0.1", "u2"));
+
+        assertThat(run(filter, login("10.0.0.1", "u3")).getStatus()).isEqualTo(429);
+        assertThat(registry.get("auth.login.rate-limited").tag("key", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bodyIsStillReadableDownstream() throws Exception {
+        LoginRateLimitFilter filter = filter(10, 10);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(login("10.0.0.1", "alice"), new MockHttpServletResponse(), chain);
+
+        String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertThat(body).contains("\"username\":\"alice\"");
+    }
+
+    @Test
+    void bodyCanBeReadAsynchronouslyDownstream() throws Exception {
+        LoginRateLimitFilter filter = filter(10, 10);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.0.1", "alice"), new MockHttpServletResponse(), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        List<String> calls = new ArrayList<>();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("data:" + new String(in.readAllBytes(), StandardCharsets.UTF_8).length());
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertThat(calls).hasSize(2).last().isEqualTo("done");
+        assertThat(in.isFinished()).isTrue();
+    }
+
+    @Test
+    void oversizedBody_isRejectedWith413() throws Exception {
+        LoginRateLimitFilter filter = filter(10, 10);
+        MockHttpServletRequest request = login("10.0.0.1", "alice");
+        request.setContent(new byte[9 * 1024]);
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void otherEndpoints_areNotLimited() throws Exception {
+        LoginRateLimitFilter filter = filter(1, 1);
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/boards");
+            request.setServletPath("/boards");
+            assertThat(run(filter, request).getStatus()).isEqualTo(200);
+        }
+    }
+}
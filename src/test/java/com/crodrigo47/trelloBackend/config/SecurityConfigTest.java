@@ -0,0 +1,30 @@
+package com.crodrigo47.trelloBackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.cors.CorsConfiguration;
+
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+
+class SecurityConfigTest {
+
+    private final CorsConfiguration cors = new SecurityConfig(null, null).corsConfigurationSource()
+            .getCorsConfiguration(new MockHttpServletRequest("GET", "/boards/1"));
+
+    @Test
+    void cors_allowsConditionalRequestHeaders() {
+        // Sin ellas el navegador rechaza el preflight y el frontend no puede revalidar con ETag
+        assertThat(cors.checkHeaders(List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MATCH)))
+                .containsExactlyInAnyOrder(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MATCH);
+    }
+
+    @Test
+    void cors_exposesEtagAndCursor() {
+        assertThat(cors.getExposedHeaders()).contains(HttpHeaders.ETAG, CursorPage.NEXT_CURSOR_HEADER);
+    }
+}
@@ -0,0 +1,119 @@
+package com.crodrigo47.trelloBackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    private TokenBucketRateLimiter limiter(int capacity, Duration refill, int maxKeys) {
+        return new TokenBucketRateLimiter(capacity, refill, maxKeys, nanos::get);
+    }
+
+    @Test
+    void allowsBurstUpToCapacity_thenRejects() {
+        TokenBucketRateLimiter limiter = limiter(3, Duration.ofMinutes(1), 10);
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+        // Otras claves tienen su propio bucket
+        assertThat(limiter.tryAcquire("bob")).isTrue();
+    }
+
+    @Test
+    void refillsOverTime() {
+        TokenBucketRateLimiter limiter = limiter(3, Duration.ofSeconds(30), 10);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice");
+        }
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(limiter.tryAcquire("alice")).isTrue();
+        assertThat(limiter.tryAcquire("alice")).isFalse();
+        assertThat(limiter.timePerToken()).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void idleBucketsAreEvicted_keepingSizeBounded() {
+        TokenBucketRateLimiter limiter = limiter(1, Duration.ofSeconds(1), 3);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(limiter.tryAcquire("d")).isTrue();
+
+        // Solo se descarta lo necesario, empezando por el más antiguo
+        assertThat(limiter.size()).isEqualTo(3);
+        assertThat(limiter.tryAcquire("b")).isTrue();
+        assertThat(limiter.tryAcquire("b")).isFalse();
+    }
+
+    @Test
+    void newKeyIsRejected_whenNoBucketHasRefilled() {
+        TokenBucketRateLimiter limiter = limiter(1, Duration.ofMinutes(1), 3);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+
+        // Descartar 'a' le regalaría otra ráfaga: se rechaza la clave nueva
+        assertThat(limiter.tryAcquire("d")).isFalse();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        assertThat(limiter.size()).isEqualTo(3);
+
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertThat(limiter.tryAcquire("d")).isTrue();
+    }
+
+    @Test
+    void sizeNeverExceedsMaxKeys_evenWhenAllBucketsAreActive() {
+        TokenBucketRateLimiter limiter = limiter(1, Duration.ofMinutes(1), 100);
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+        assertThat(limiter.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void concurrentBurst_grantsExactlyCapacity() throws Exception {
+        TokenBucketRateLimiter limiter = limiter(50, Duration.ofHours(1), 10);
+        int threads = 16;
+        int attemptsPerThread = 100;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (limiter.tryAcquire("alice")) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(granted).hasValue(50);
+    }
+}
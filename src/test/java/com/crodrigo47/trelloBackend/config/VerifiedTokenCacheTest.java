@@ -0,0 +1,150 @@
+package com.crodrigo47.trelloBackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private Function<String, JwtToken> parserExpiringAt(Instant expiration) {
+        return token -> {
+            parses.incrementAndGet();
+            return new JwtToken(token, NOW, expiration, Map.of());
+        };
+    }
+
+    private VerifiedTokenCache cacheAt(Instant now, int maxSize) {
+        return new VerifiedTokenCache(true, maxSize, Duration.ofMinutes(5), registry,
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void repeatedToken_isVerifiedOnce() {
+        VerifiedTokenCache cache = cacheAt(NOW, 10);
+        var parser = parserExpiringAt(NOW.plusSeconds(3600));
+
+        cache.getOrParse("token-a", parser);
+        JwtToken second = cache.getOrParse("token-a", parser);
+
+        assertThat(second.subject()).isEqualTo("token-a");
+        assertThat(parses).hasValue(1);
+        assertThat(registry.get("jwt.token.cache.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(registry.get("jwt.token.cache.gets").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void entry_neverOutlivesTokenExpiry() {
+        MutableClock clock = new MutableClock(NOW);
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 10, Duration.ofMinutes(5), registry, clock);
+        var parser = parserExpiringAt(NOW.plusSeconds(30));
+
+        cache.getOrParse("token-a", parser);
+        clock.now = NOW.plusSeconds(31);
+        cache.getOrParse("token-a", parser);
+
+        assertThat(parses).hasValue(2);
+        assertThat(registry.get("jwt.token.cache.evictions").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void size_staysBounded() {
+        VerifiedTokenCache cache = cacheAt(NOW, 3);
+        var parser = parserExpiringAt(NOW.plusSeconds(3600));
+
+        for (int i = 0; i < 10; i++) {
+            cache.getOrParse("token-" + i, parser);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(3);
+        assertThat(registry.get("jwt.token.cache.evictions").counter().count()).isEqualTo(7);
+    }
+
+    @Test
+    void whenFull_evictsLeastRecentlyUsed() {
+        VerifiedTokenCache cache = cacheAt(NOW, 2);
+        var parser = parserExpiringAt(NOW.plusSeconds(3600));
+
+        cache.getOrParse("token-a", parser);
+        cache.getOrParse("token-b", parser);
+        cache.getOrParse("token-a", parser);
+        cache.getOrParse("token-c", parser);
+
+        // token-a se ha usado después de token-b: sigue en caché
+        cache.getOrParse("token-a", parser);
+        assertThat(parses).hasValue(3);
+        cache.getOrParse("token-b", parser);
+        assertThat(parses).hasValue(4);
+    }
+
+    @Test
+    void expiredEntries_areSweptWithoutWaitingForALookup() {
+        MutableClock clock = new MutableClock(NOW);
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 8, Duration.ofMinutes(5), registry, clock);
+
+        cache.getOrParse("short-1", parserExpiringAt(NOW.plusSeconds(10)));
+        cache.getOrParse("short-2", parserExpiringAt(NOW.plusSeconds(10)));
+        clock.now = NOW.plusSeconds(11);
+
+        // Cada maxSize / 4 = 2 inserciones se barren las caducadas
+        var parser = parserExpiringAt(NOW.plusSeconds(3600));
+        cache.getOrParse("token-a", parser);
+        cache.getOrParse("token-b", parser);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(registry.get("jwt.token.cache.evictions").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidToken_isNotCached() {
+        VerifiedTokenCache cache = cacheAt(NOW, 10);
+        Function<String, JwtToken> failing = token -> {
+            parses.incrementAndGet();
+            throw new IllegalArgumentException("bad signature");
+        };
+
+        assertThatThrownBy(() -> cache.getOrParse("bad", failing)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> cache.getOrParse("bad", failing)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(parses).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private static class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
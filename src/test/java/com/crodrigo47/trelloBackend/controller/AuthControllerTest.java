@@ -2,31 +2,44 @@ package com.crodrigo47.trelloBackend.controller;
 
 import com.crodrigo47.trelloBackend.config.CustomUserDetailsService;
 import com.crodrigo47.trelloBackend.config.JwtUtil;
+import com.crodrigo47.trelloBackend.config.VerifiedTokenCache;
 import com.crodrigo47.trelloBackend.exception.InvalidPasswordException;
 import com.crodrigo47.trelloBackend.model.User;
 import com.crodrigo47.trelloBackend.repository.UserRepository;
+import com.crodrigo47.trelloBackend.service.AccountDeletionService;
+import com.crodrigo47.trelloBackend.service.PasswordHashingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import({PasswordHashingService.class, SimpleMeterRegistry.class})
 @TestPropertySource(properties = {
     "jwt.secret=${JWT_TEST_SECRET:supersecuretestkeythatisatleast32bytes!}",
     "jwt.expiration-ms=3600000"
@@ -39,6 +52,8 @@ class AuthControllerTest {
     @MockBean UserRepository userRepository;
     @MockBean JwtUtil jwtUtil;
     @MockBean CustomUserDetailsService customUserDetailsService;
+    @MockBean VerifiedTokenCache verifiedTokenCache;
+    @MockBean AccountDeletionService accountDeletionService;
 
     @SpyBean BCryptPasswordEncoder passwordEncoder;
 
@@ -56,19 +71,53 @@ class AuthControllerTest {
 
         when(jwtUtil.generateToken(any())).thenReturn("fake-jwt-token");
 
-        mockMvc.perform(post("/auth/login")
+        MvcResult pending = mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"username\": \"dave\", \"password\": \"" + rawPassword + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.username").value("dave"))
                 .andExpect(jsonPath("$.token").value("fake-jwt-token"));
     }
 
+    @Test
+    void login_withOutdatedHashCost_rehashesInBackground() throws Exception {
+        String rawPassword = "secret";
+        String outdatedHash = new BCryptPasswordEncoder(4).encode(rawPassword);
+
+        when(userRepository.findByUsername("dave"))
+                .thenReturn(Optional.of(User.builder()
+                        .id(1L)
+                        .username("dave")
+                        .password(outdatedHash)
+                        .build()));
+        when(jwtUtil.generateToken(any())).thenReturn("fake-jwt-token");
+
+        MvcResult pending = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\": \"dave\", \"password\": \"" + rawPassword + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk());
+
+        verify(userRepository, timeout(5000)).updatePasswordIfUnchanged(
+                eq(1L),
+                eq(outdatedHash),
+                argThat(hash -> hash.startsWith("$2a$10$") && passwordEncoder.matches(rawPassword, hash)));
+    }
+
     @Test
     void login_createsUserIfNotExists() throws Exception {
         when(userRepository.findByUsername("eve")).thenReturn(Optional.empty());
+        AtomicReference<String> saveThread = new AtomicReference<>();
         when(userRepository.save(any(User.class)))
                 .thenAnswer(invocation -> {
+                    saveThread.set(Thread.currentThread().getName());
                     User u = invocation.getArgument(0);
                     u.setId(99L);
                     return u;
@@ -76,12 +125,18 @@ class AuthControllerTest {
 
         when(jwtUtil.generateToken(any())).thenReturn("fake-jwt-token");
 
-        mockMvc.perform(post("/auth/login")
+        MvcResult pending = mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"username\": \"eve\", \"password\": \"mypassword\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(99))
                 .andExpect(jsonPath("$.token").value("fake-jwt-token"));
+        // El insert no ocupa un hilo del pool de BCrypt
+        assertThat(saveThread.get()).doesNotStartWith("password-hashing-");
     }
 
     @Test
@@ -97,9 +152,13 @@ class AuthControllerTest {
                         .password(encodedPassword)
                         .build()));
 
-        mockMvc.perform(post("/auth/login")
+        MvcResult pending = mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"username\": \"dave\", \"password\": \"" + wrongPassword + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isUnauthorized())
                 .andExpect(result ->
                         assertThat(result.getResolvedException())
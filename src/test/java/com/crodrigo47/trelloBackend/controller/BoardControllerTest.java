@@ -1,11 +1,20 @@
 package com.crodrigo47.trelloBackend.controller;
 
 import com.crodrigo47.trelloBackend.config.JwtAuthenticationFilter;
+import com.crodrigo47.trelloBackend.dto.BoardDto;
+import com.crodrigo47.trelloBackend.dto.BoardMemberDto;
+import com.crodrigo47.trelloBackend.dto.BoardSnapshotDto;
+import com.crodrigo47.trelloBackend.dto.DtoMapper;
+import com.crodrigo47.trelloBackend.dto.TaskCreatedDto;
+import com.crodrigo47.trelloBackend.dto.TaskDto;
+import com.crodrigo47.trelloBackend.exception.InvalidBatchException;
 import com.crodrigo47.trelloBackend.helper.Builders;
 import com.crodrigo47.trelloBackend.model.Board;
 import com.crodrigo47.trelloBackend.model.Task;
 import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.service.BoardEventBroadcaster;
 import com.crodrigo47.trelloBackend.service.BoardService;
+import com.crodrigo47.trelloBackend.service.BoardSyncService;
 import com.crodrigo47.trelloBackend.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,10 +24,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +47,12 @@ class BoardControllerTest {
     @MockBean
     private BoardService boardService;
 
+    @MockBean
+    private BoardSyncService boardSyncService;
+
+    @MockBean
+    private BoardEventBroadcaster boardEvents;
+
     @MockBean
     private UserService userService; // mock para resolver principal -> User
 
@@ -50,10 +67,10 @@ class BoardControllerTest {
 
     @Test
     void testGetAllBoards() throws Exception {
-        Board board1 = Builders.buildBoardWithId("Board 1", 1L, mockUser);
-        Board board2 = Builders.buildBoardWithId("Board 2", 2L, mockUser);
+        BoardDto board1 = new BoardDto(1L, "Board 1", "Descripción de Board 1", Set.of(1L), Set.of(), 1L, 0L);
+        BoardDto board2 = new BoardDto(2L, "Board 2", "Descripción de Board 2", Set.of(1L), Set.of(), 1L, 0L);
 
-        Mockito.when(boardService.getAllBoardsForCurrentUser(Mockito.any()))
+        Mockito.when(boardService.getBoardDtosForCurrentUser(Mockito.any(), Mockito.isNull()))
                .thenReturn(List.of(board1, board2));
 
         mockMvc.perform(get("/boards").principal(() -> "alice"))
@@ -117,15 +134,79 @@ class BoardControllerTest {
     @Test
     void testAddTaskToBoard() throws Exception {
         Board board = Builders.buildBoardWithId("Board 1", 1L, mockUser);
+        Task created = Builders.buildTaskWithId("New Task", 5L, board, mockUser, null);
 
-        Mockito.when(boardService.addTaskToBoard(Mockito.eq(1L), Mockito.any(Task.class), Mockito.any()))
-               .thenReturn(board);
+        Mockito.when(boardService.addTaskWithBoardVersion(Mockito.eq(1L), Mockito.any(Task.class), Mockito.any()))
+               .thenReturn(new TaskCreatedDto(DtoMapper.toTaskDto(created), 8L));
 
         mockMvc.perform(post("/boards/1/tasks")
                         .principal(() -> "alice")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"title\":\"New Task\"}"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.name").value("Board 1"));
+                .andExpect(jsonPath("$.task.id").value(5))
+                .andExpect(jsonPath("$.task.title").value("New Task"))
+                .andExpect(jsonPath("$.task.boardId").value(1))
+                .andExpect(jsonPath("$.boardVersion").value(8))
+                .andExpect(jsonPath("$.task.taskIds").doesNotExist());
+    }
+
+    @Test
+    void testAddTasksToBoard_returnsCreatedIds() throws Exception {
+        Mockito.when(boardService.addTasksToBoard(Mockito.eq(1L), Mockito.anyList(), Mockito.any()))
+               .thenReturn(List.of(10L, 11L));
+
+        mockMvc.perform(post("/boards/1/tasks:batch")
+                        .principal(() -> "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"A\"},{\"title\":\"B\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(10))
+                .andExpect(jsonPath("$[1]").value(11));
+    }
+
+    @Test
+    void testAddTasksToBoard_invalidBatch_returns400() throws Exception {
+        Mockito.when(boardService.addTasksToBoard(Mockito.eq(1L), Mockito.anyList(), Mockito.any()))
+               .thenThrow(new InvalidBatchException("Batch must contain at least one task"));
+
+        mockMvc.perform(post("/boards/1/tasks:batch")
+                        .principal(() -> "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch must contain at least one task"));
+    }
+
+    @Test
+    void testSubscribeToBoardEvents_checksAccessAndOpensStream() throws Exception {
+        Mockito.when(boardEvents.subscribe(Mockito.eq(1L), Mockito.eq(1L), Mockito.any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return new SseEmitter();
+        });
+
+        mockMvc.perform(get("/boards/1/events")
+                        .principal(() -> "alice")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(boardService).checkCanView(1L, mockUser);
+    }
+
+    @Test
+    void testGetBoardSnapshot_returnsBoardMembersAndTasks() throws Exception {
+        BoardSnapshotDto snapshot = new BoardSnapshotDto(1L, "Board 1", "desc", 1L, 0L,
+                List.of(new BoardMemberDto(1L, "alice")),
+                List.of(new TaskDto(10L, "Tarea", null, Task.Status.DONE, null, 1L, 1L, null, null, 0L)));
+        Mockito.when(boardService.getSnapshotEtag(1L, mockUser, Task.Status.DONE)).thenReturn("b1.0.sDONE");
+        Mockito.when(boardService.getBoardSnapshot(1L, mockUser, Task.Status.DONE)).thenReturn(snapshot);
+
+        mockMvc.perform(get("/boards/1/snapshot").param("status", "DONE").principal(() -> "alice"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"b1.0.sDONE\""))
+                .andExpect(jsonPath("$.name").value("Board 1"))
+                .andExpect(jsonPath("$.members[0].username").value("alice"))
+                .andExpect(jsonPath("$.members[0].password").doesNotExist())
+                .andExpect(jsonPath("$.tasks[0].id").value(10));
     }
 }
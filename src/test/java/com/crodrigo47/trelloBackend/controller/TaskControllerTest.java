@@ -2,8 +2,10 @@ package com.crodrigo47.trelloBackend.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -24,6 +26,9 @@ import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.crodrigo47.trelloBackend.config.JwtAuthenticationFilter;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.exception.ConcurrentUpdateException;
+import com.crodrigo47.trelloBackend.exception.GlobalExceptionHandler;
 import com.crodrigo47.trelloBackend.exception.TaskNotFoundException;
 import com.crodrigo47.trelloBackend.helper.Builders;
 import com.crodrigo47.trelloBackend.model.Board;
@@ -193,13 +198,15 @@ class TaskControllerTest {
         Task task = Builders.buildTaskWithId("BoardTask", 1L, board, currentUser, currentUser);
 
         when(userService.getUserByUsername(eq(currentUser.getUsername()))).thenReturn(Optional.of(currentUser));
-        when(taskService.getTasksByBoard(eq(1L), eq(currentUser.getId()))).thenReturn(List.of(task));
+        when(taskService.getTasksByBoard(eq(1L), eq(currentUser.getId()), isNull(), isNull()))
+                .thenReturn(new CursorPage<>(List.of(task), "next-page"));
 
         Authentication auth = new UsernamePasswordAuthenticationToken(currentUser.getUsername(), null);
         SecurityContextHolder.setContext(new SecurityContextImpl(auth));
         try {
             mockMvc.perform(get("/tasks/board/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next-page"))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].title").value("BoardTask"));
         } finally {
@@ -273,4 +280,19 @@ class TaskControllerTest {
                 .principal(() -> currentUser.getUsername()))
             .andExpect(status().isNotFound());
     }
+
+    @Test
+    void updateTask_concurrentUpdate_returns409WithCurrentVersion() throws Exception {
+        User currentUser = Builders.buildUserWithId("manager", 99L);
+        when(userService.getUserByUsername(eq(currentUser.getUsername()))).thenReturn(Optional.of(currentUser));
+        when(taskService.updateTask(any(Task.class), any()))
+            .thenThrow(new ConcurrentUpdateException("Task 1 is at version 4, not 3", 4L));
+
+        mockMvc.perform(put("/tasks/1")
+                .principal(() -> currentUser.getUsername())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"t\",\"version\":3}"))
+            .andExpect(status().isConflict())
+            .andExpect(header().string(GlobalExceptionHandler.CURRENT_VERSION_HEADER, "4"));
+    }
 }
@@ -1,9 +1,13 @@
 package com.crodrigo47.trelloBackend.controller;
 
+import com.crodrigo47.trelloBackend.config.AuthenticatedUser;
 import com.crodrigo47.trelloBackend.config.JwtAuthenticationFilter;
+import com.crodrigo47.trelloBackend.dto.AccountDeletionDto;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
 import com.crodrigo47.trelloBackend.dto.DtoMapper;
 import com.crodrigo47.trelloBackend.dto.UserDto;
 import com.crodrigo47.trelloBackend.dto.UserSearchDto;
+import com.crodrigo47.trelloBackend.model.AccountDeletion;
 import com.crodrigo47.trelloBackend.model.User;
 import com.crodrigo47.trelloBackend.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -13,16 +17,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -44,17 +56,42 @@ class UserControllerTest {
     @Test
     void getAllUsers_returnsJsonList() throws Exception {
         User admin = User.builder().id(1L).username("admin").role(User.Role.ADMIN).build();
-        when(userService.getAllUsers()).thenReturn(List.of(admin));
+        when(userService.getUsersPage(null, null))
+            .thenReturn(new CursorPage<>(List.of(DtoMapper.toUserDto(admin)), "next-page"));
         when(userService.getUserByUsername("admin")).thenReturn(Optional.of(admin));
 
         Principal principal = new UsernamePasswordAuthenticationToken("admin", null);
 
         mockMvc.perform(get("/users").principal(principal))
             .andExpect(status().isOk())
+            .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next-page"))
             .andExpect(jsonPath("$[0].id").value(admin.getId()))
             .andExpect(jsonPath("$[0].username").value(admin.getUsername()));
     }
 
+    @Test
+    void streamAllUsers_writesJsonArray() throws Exception {
+        User admin = User.builder().id(1L).username("admin").role(User.Role.ADMIN).build();
+        when(userService.getUserByUsername("admin")).thenReturn(Optional.of(admin));
+        doAnswer(invocation -> {
+            Consumer<UserDto> sink = invocation.getArgument(0);
+            sink.accept(new UserDto(1L, "admin", User.Role.ADMIN, Set.of(), Set.of()));
+            sink.accept(new UserDto(2L, "bob", User.Role.USER, Set.of(7L), Set.of()));
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        MvcResult result = mockMvc.perform(get("/users").param("stream", "true")
+                .principal(new UsernamePasswordAuthenticationToken("admin", null)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[1].username").value("bob"))
+            .andExpect(jsonPath("$[1].boardIds[0]").value(7));
+    }
+
     @Test
     void getUserById_returnsUser() throws Exception {
         User user = User.builder().id(1L).username("alice").role(User.Role.USER).build();
@@ -105,12 +142,17 @@ class UserControllerTest {
 
         when(userService.getUserById(userId)).thenReturn(Optional.of(existingUser));
         when(userService.getUserByUsername("bob")).thenReturn(Optional.of(existingUser));
+        LocalDateTime now = LocalDateTime.now();
+        when(userService.deleteUser(userId)).thenReturn(new AccountDeletionDto(
+                userId, AccountDeletion.Phase.UNASSIGN_TASKS, false, 0, now, now, null));
 
         Principal principal = new UsernamePasswordAuthenticationToken("bob", null);
 
         mockMvc.perform(delete("/users/{id}", userId)
                 .principal(principal))
-            .andExpect(status().isOk());
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.phase").value("UNASSIGN_TASKS"))
+            .andExpect(jsonPath("$.done").value(false));
 
         verify(userService).deleteUser(userId);
     }
@@ -179,4 +221,46 @@ class UserControllerTest {
                 .content(mapper.writeValueAsString(body)))
                 .andExpect(status().is4xxClientError());
     }
+
+    @Test
+    void getAllUsers_staleAdminClaim_isRejected() throws Exception {
+        // El token dice ADMIN, pero en la BD ya no lo es
+        User demoted = User.builder().id(1L).username("admin").role(User.Role.USER).build();
+        when(userService.getUserById(1L)).thenReturn(Optional.of(demoted));
+
+        // Sin filtros de seguridad la AccessDeniedException llega tal cual (con ellos sería un 403)
+        assertThatThrownBy(() -> mockMvc.perform(get("/users").principal(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(1L, "admin", User.Role.ADMIN), null))))
+            .hasCauseInstanceOf(AccessDeniedException.class);
+
+        verify(userService, never()).getUsersPage(any(), any());
+    }
+
+    @Test
+    void getAccountDeletion_afterDone_ownerCanStillPoll() throws Exception {
+        // El borrado terminó: el usuario ya no existe, solo queda la fila de account_deletion
+        LocalDateTime now = LocalDateTime.now();
+        when(userService.getAccountDeletion(1L)).thenReturn(Optional.of(new AccountDeletionDto(
+                1L, AccountDeletion.Phase.DONE, true, 12, now, now, now)));
+
+        mockMvc.perform(get("/users/{id}/deletion", 1L).principal(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(1L, "bob", User.Role.USER), null)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.phase").value("DONE"))
+            .andExpect(jsonPath("$.done").value(true));
+
+        verify(userService, never()).getUserById(any());
+    }
+
+    @Test
+    void getAccountDeletion_otherUser_staleAdminClaim_isRejected() {
+        User demoted = User.builder().id(1L).username("admin").role(User.Role.USER).build();
+        when(userService.getUserById(1L)).thenReturn(Optional.of(demoted));
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/users/{id}/deletion", 2L).principal(
+                new UsernamePasswordAuthenticationToken(new AuthenticatedUser(1L, "admin", User.Role.ADMIN), null))))
+            .hasCauseInstanceOf(AccessDeniedException.class);
+
+        verify(userService, never()).getAccountDeletion(any());
+    }
 }
@@ -14,12 +14,15 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(properties = "spring.profiles.active=test")
@@ -32,12 +35,16 @@ class AuthIntegrationTest {
 
     @Autowired MockMvc mockMvc;
     @Autowired ObjectMapper mapper;
+    @Autowired com.crodrigo47.trelloBackend.repository.TaskRepository taskRepository;
+    @Autowired com.crodrigo47.trelloBackend.repository.BoardRepository boardRepository;
     @Autowired UserRepository userRepository;
     @Autowired JwtUtil jwtUtil;
     @Autowired BCryptPasswordEncoder passwordEncoder;
 
     @BeforeEach
     void setup() {
+        taskRepository.deleteAll();
+        boardRepository.deleteAll();
         userRepository.deleteAll();
     }
 
@@ -46,12 +53,16 @@ class AuthIntegrationTest {
         String username = "fran";
         String password = "supersecret";
 
-        String response = mockMvc.perform(post("/auth/login")
+        MvcResult pending = mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(mapper.writeValueAsString(Map.of(
                         "username", username,
                         "password", password
                 ))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String response = mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
 
@@ -107,13 +107,16 @@ class BoardIntegrationTest {
                     .andExpect(status().isOk())
                     .andReturn().getResponse().getContentAsString();
 
-            Map<String, Object> boardWithTaskJson = mapper.readValue(addTaskResponse, new TypeReference<Map<String, Object>>() {});
+            Map<String, Object> createdJson = mapper.readValue(addTaskResponse, new TypeReference<Map<String, Object>>() {});
             @SuppressWarnings("unchecked")
-            List<Object> taskIds = (List<Object>) boardWithTaskJson.get("taskIds");
-            assertThat(taskIds).isNotEmpty();
+            Map<String, Object> taskJson = (Map<String, Object>) createdJson.get("task");
+            assertThat(((Number) taskJson.get("boardId")).longValue()).isEqualTo(boardId);
+            // El contador de cambios del board tras el alta: el mismo que lleva su ETag
+            assertThat(((Number) createdJson.get("boardVersion")).longValue())
+                    .isEqualTo(boardRepository.findChangeCountById(boardId).orElseThrow());
 
             // coger el id creado para comparar más abajo
-            Integer addedTaskId = (Integer) taskIds.get(0);
+            Integer addedTaskId = (Integer) taskJson.get("id");
 
             // ----------------- GET TASKS -----------------
             mockMvc.perform(get("/boards/" + boardId + "/tasks").principal(() -> creator.getUsername()))
@@ -146,4 +149,109 @@ class BoardIntegrationTest {
             org.springframework.security.core.context.SecurityContextHolder.clearContext();
         }
     }
+
+    @Test
+    void addTasksBatch_createsAllTasksAndReturnsIdsInOrder() throws Exception {
+        User creator = userRepository.save(Builders.buildUser("carol"));
+
+        String createResponse = mockMvc.perform(post("/boards")
+                .principal(() -> creator.getUsername())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Map.of("name", "Imported"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long boardId = mapper.readTree(createResponse).get("id").asLong();
+
+        List<Map<String, String>> batch = List.of(
+                Map.of("title", "one"), Map.of("title", "two"), Map.of("title", "three", "status", "DONE"));
+        String batchResponse = mockMvc.perform(post("/boards/" + boardId + "/tasks:batch")
+                .principal(() -> creator.getUsername())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<Long> ids = mapper.readValue(batchResponse, new TypeReference<List<Long>>() {});
+        assertThat(ids).hasSize(3).isSorted().doesNotHaveDuplicates();
+
+        mockMvc.perform(get("/boards/" + boardId + "/tasks").principal(() -> creator.getUsername()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].title").value("one"))
+                .andExpect(jsonPath("$[2].title").value("three"))
+                .andExpect(jsonPath("$[2].status").value("DONE"));
+    }
+
+    @Test
+    void getBoard_ifNoneMatch_returns304UntilBoardChanges() throws Exception {
+        User creator = userRepository.save(Builders.buildUser("dave"));
+
+        String createResponse = mockMvc.perform(post("/boards")
+                .principal(() -> creator.getUsername())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Map.of("name", "Polled"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long boardId = mapper.readTree(createResponse).get("id").asLong();
+
+        String etag = mockMvc.perform(get("/boards/" + boardId).principal(() -> creator.getUsername()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Sin cambios: 304 sin cuerpo
+        mockMvc.perform(get("/boards/" + boardId).principal(() -> creator.getUsername())
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Una tarea nueva cambia el contador del board y con él el ETag
+        mockMvc.perform(post("/boards/" + boardId + "/tasks")
+                .principal(() -> creator.getUsername())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Map.of("title", "new"))))
+                .andExpect(status().isOk());
+
+        String newEtag = mockMvc.perform(get("/boards/" + boardId).principal(() -> creator.getUsername())
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    void getSnapshot_memberRenamed_returnsNewEtag() throws Exception {
+        User creator = userRepository.save(Builders.buildUser("erin"));
+        User member = userRepository.save(Builders.buildUser("frank"));
+
+        String createResponse = mockMvc.perform(post("/boards")
+                .principal(() -> creator.getUsername())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Map.of("name", "Shared"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long boardId = mapper.readTree(createResponse).get("id").asLong();
+
+        mockMvc.perform(post("/boards/" + boardId + "/users/" + member.getId())
+                .principal(() -> creator.getUsername()))
+                .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/boards/" + boardId + "/snapshot").principal(() -> creator.getUsername()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // El snapshot lleva el nombre de los miembros: renombrar uno invalida el ETag
+        mockMvc.perform(put("/users/" + member.getId())
+                .principal(() -> member.getUsername())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Map.of("username", "franky"))))
+                .andExpect(status().isOk());
+
+        String newEtag = mockMvc.perform(get("/boards/" + boardId + "/snapshot").principal(() -> creator.getUsername())
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members[1].username").value("franky"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
 }
@@ -0,0 +1,128 @@
+package com.crodrigo47.trelloBackend.controller.integration;
+
+import com.crodrigo47.trelloBackend.config.CustomUserDetails;
+import com.crodrigo47.trelloBackend.config.JwtUtil;
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+import com.crodrigo47.trelloBackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba que cada endpoint de boards/tasks busca al usuario actual como mucho una vez,
+ * pasando por el filtro JWT real.
+ */
+@SpringBootTest(properties = "spring.profiles.active=test")
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "jwt.secret=${JWT_TEST_SECRET:supersecuretestkeythatisatleast32bytes!}",
+        "jwt.expiration-ms=3600000",
+        "jwt.token-cache.enabled=false"
+})
+class CurrentUserIntegrationTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired JwtUtil jwtUtil;
+    @Autowired TaskRepository taskRepository;
+    @Autowired BoardRepository boardRepository;
+    @SpyBean UserRepository userRepository;
+
+    private User alice;
+    private Board board;
+    private Task task;
+
+    @BeforeEach
+    void setup() {
+        taskRepository.deleteAll();
+        boardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        alice = userRepository.save(Builders.buildUser("alice"));
+        Board b = Builders.buildBoard("Board", alice);
+        b.addUser(alice);
+        board = boardRepository.save(b);
+        task = taskRepository.save(Builders.buildTask("Task", board, alice, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        boardRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private List<MockHttpServletRequestBuilder> endpoints() {
+        return List.of(
+                get("/boards"),
+                get("/boards/" + board.getId()),
+                get("/boards/" + board.getId() + "/tasks"),
+                get("/boards/" + board.getId() + "/users"),
+                post("/boards/" + board.getId() + "/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Another\"}"),
+                get("/tasks/" + task.getId()),
+                put("/tasks/" + task.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\",\"status\":\"DONE\"}"),
+                get("/tasks/board/" + board.getId())
+        );
+    }
+
+    @Test
+    void tokenWithoutUserClaims_looksUpCurrentUserAtMostOncePerRequest() throws Exception {
+        String token = jwtUtil.generateToken(Map.of(), new CustomUserDetails(alice));
+
+        for (MockHttpServletRequestBuilder request : endpoints()) {
+            Mockito.clearInvocations(userRepository);
+
+            perform(request.header("Authorization", "Bearer " + token));
+
+            verify(userRepository, atMost(1)).findByUsername(anyString());
+            verify(userRepository, never()).findById(any());
+        }
+    }
+
+    @Test
+    void tokenWithUserClaims_resolvesCurrentUserWithoutLookup() throws Exception {
+        String token = jwtUtil.generateToken(new CustomUserDetails(alice));
+
+        for (MockHttpServletRequestBuilder request : endpoints()) {
+            Mockito.clearInvocations(userRepository);
+
+            perform(request.header("Authorization", "Bearer " + token));
+
+            verify(userRepository, never()).findByUsername(anyString());
+            verify(userRepository, never()).findById(any());
+        }
+    }
+
+    private void perform(RequestBuilder request) throws Exception {
+        mockMvc.perform(request).andExpect(status().isOk());
+    }
+}
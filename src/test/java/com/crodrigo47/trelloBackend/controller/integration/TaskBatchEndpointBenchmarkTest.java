@@ -0,0 +1,94 @@
+package com.crodrigo47.trelloBackend.controller.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+import com.crodrigo47.trelloBackend.repository.UserRepository;
+import com.crodrigo47.trelloBackend.service.BoardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Migración de un board de 5.000 tareas: un POST por tarea frente a POST /tasks:batch
+ * en lotes de BoardService.MAX_TASK_BATCH. No corre con el resto de tests:
+ *
+ *   mvn test -Dtest=TaskBatchEndpointBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {"spring.profiles.active=test", "spring.jpa.show-sql=false"})
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = {
+    "jwt.secret=${JWT_TEST_SECRET:supersecuretestkeythatisatleast32bytes!}",
+    "jwt.expiration-ms=3600000"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskBatchEndpointBenchmarkTest {
+
+    private static final int TASKS = 5_000;
+
+    @Autowired MockMvc mockMvc;
+    @Autowired ObjectMapper mapper;
+    @Autowired UserRepository userRepository;
+    @Autowired BoardRepository boardRepository;
+    @Autowired TaskRepository taskRepository;
+
+    @Test
+    void singlePostsVersusBatch() throws Exception {
+        User user = userRepository.save(Builders.buildUser("importer"));
+
+        Board single = boardRepository.save(boardOf(user, "single"));
+        long start = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            mockMvc.perform(post("/boards/" + single.getId() + "/tasks")
+                    .principal(user::getUsername)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(Map.of("title", "t" + i))))
+                    .andExpect(status().isOk());
+        }
+        long singleMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Board batched = boardRepository.save(boardOf(user, "batch"));
+        start = System.nanoTime();
+        for (int from = 0; from < TASKS; from += BoardService.MAX_TASK_BATCH) {
+            List<Map<String, String>> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(TASKS, from + BoardService.MAX_TASK_BATCH); i++) {
+                chunk.add(Map.of("title", "t" + i));
+            }
+            mockMvc.perform(post("/boards/" + batched.getId() + "/tasks:batch")
+                    .principal(user::getUsername)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(chunk)))
+                    .andExpect(status().isOk());
+        }
+        long batchMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("single POST /tasks:       %d tasks in %d ms (%d tasks/s)%n",
+                TASKS, singleMillis, TASKS * 1000L / Math.max(1, singleMillis));
+        System.out.printf("POST /tasks:batch (%d): %d tasks in %d ms (%d tasks/s)%n",
+                BoardService.MAX_TASK_BATCH, TASKS, batchMillis, TASKS * 1000L / Math.max(1, batchMillis));
+        assertThat(taskRepository.count()).isEqualTo(2L * TASKS);
+    }
+
+    private static Board boardOf(User user, String name) {
+        Board board = Builders.buildBoard(name, user);
+        board.addUser(user);
+        return board;
+    }
+}
@@ -1,5 +1,6 @@
 package com.crodrigo47.trelloBackend.controller.integration;
 
+import com.crodrigo47.trelloBackend.dto.CursorPage;
 import com.crodrigo47.trelloBackend.helper.Builders;
 import com.crodrigo47.trelloBackend.model.User;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -16,6 +17,8 @@ import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -154,4 +157,71 @@ class TaskIntegrationTest {
             org.springframework.security.core.context.SecurityContextHolder.clearContext();
         }
     }
+
+    @Test
+    void tasksByBoard_areReturnedInCursorPages() throws Exception {
+        User creator = userRepository.save(Builders.buildUser("PagerTest"));
+        var board = Builders.buildBoard("PagedBoard", creator);
+        board.addUser(creator);
+        board = boardRepository.save(board);
+        for (int i = 0; i < 5; i++) {
+            taskRepository.save(Builders.buildTask("Task" + i, board, creator, null));
+        }
+
+        var auth = new UsernamePasswordAuthenticationToken(creator.getUsername(), null);
+        org.springframework.security.core.context.SecurityContextHolder.setContext(new SecurityContextImpl(auth));
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/tasks/board/" + board.getId()).param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            var response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+            List<Map<String, Object>> items = mapper.readValue(response.getContentAsString(),
+                    new TypeReference<List<Map<String, Object>>>() {});
+            items.forEach(item -> titles.add((String) item.get("title")));
+            cursor = response.getHeader(CursorPage.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(titles).containsExactly("Task0", "Task1", "Task2", "Task3", "Task4");
+
+        mockMvc.perform(get("/boards/" + board.getId() + "/tasks").param("cursor", "###"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tasksByBoard_withoutCursorOrLimit_returnEveryTask() throws Exception {
+        // Clientes anteriores a la paginación: más tareas que DEFAULT_LIMIT y ninguna se queda fuera
+        User creator = userRepository.save(Builders.buildUser("LegacyClient"));
+        var board = Builders.buildBoard("BigBoard", creator);
+        board.addUser(creator);
+        board = boardRepository.save(board);
+        int total = CursorPage.DEFAULT_LIMIT + 10;
+        for (int i = 0; i < total; i++) {
+            taskRepository.save(Builders.buildTask("Task" + i, board, creator, null));
+        }
+
+        var auth = new UsernamePasswordAuthenticationToken(creator.getUsername(), null);
+        org.springframework.security.core.context.SecurityContextHolder.setContext(new SecurityContextImpl(auth));
+
+        for (String path : List.of("/tasks/board/" + board.getId(), "/boards/" + board.getId() + "/tasks")) {
+            mockMvc.perform(get(path))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER))
+                    .andExpect(jsonPath("$.length()").value(total));
+        }
+
+        // Con limit sigue paginando
+        mockMvc.perform(get("/boards/" + board.getId() + "/tasks").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(CursorPage.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(10));
+    }
 }
@@ -31,11 +31,16 @@ class UserIntegrationTest {
 
     @Autowired MockMvc mockMvc;
     @Autowired ObjectMapper mapper;
+    @Autowired com.crodrigo47.trelloBackend.repository.TaskRepository taskRepository;
+    @Autowired com.crodrigo47.trelloBackend.repository.BoardRepository boardRepository;
     @Autowired com.crodrigo47.trelloBackend.repository.UserRepository userRepository;
     @Autowired BCryptPasswordEncoder passwordEncoder;
+    @Autowired com.crodrigo47.trelloBackend.service.AccountDeletionService accountDeletionService;
 
     @BeforeEach
     void setup() {
+        taskRepository.deleteAll();
+        boardRepository.deleteAll();
         userRepository.deleteAll();
     }
 
@@ -89,9 +94,17 @@ class UserIntegrationTest {
         // ----------------- DELETE (principal = usuario actualizado) -----------------
         mockMvc.perform(delete("/users/" + userId)
                 .principal(new UsernamePasswordAuthenticationToken(updatedUsername, null)))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.done").value(false));
+
+        // En los tests el worker está apagado: se procesa a mano
+        accountDeletionService.processPending();
 
         assertThat(userRepository.findById(userId)).isEmpty();
+        mockMvc.perform(get("/users/" + userId + "/deletion")
+                .principal(new UsernamePasswordAuthenticationToken("admin", null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.done").value(true));
     }
 
         // -------------------------- NEW: SEARCH (integration) -------------------------- //
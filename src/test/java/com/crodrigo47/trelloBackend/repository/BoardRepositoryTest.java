@@ -7,7 +7,12 @@ import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import com.crodrigo47.trelloBackend.dto.BoardRow;
 import com.crodrigo47.trelloBackend.helper.Builders;
 import com.crodrigo47.trelloBackend.model.Board;
 import com.crodrigo47.trelloBackend.model.Task;
@@ -15,7 +20,7 @@ import com.crodrigo47.trelloBackend.model.User;
 
 import jakarta.transaction.Transactional;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class BoardRepositoryTest {
 
     @Autowired
@@ -27,6 +32,9 @@ class BoardRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     void createEntity_generatedIdAndCreator() {
         User creator = userRepository.save(Builders.buildUser("alice"));
@@ -85,6 +93,22 @@ class BoardRepositoryTest {
                 .containsExactlyInAnyOrder("Diseño", "Diseño UX");
     }
 
+    @Test
+    void findRowsByMemberIdAndName_treatsWildcardsLiterally() {
+        User alice = userRepository.save(Builders.buildUser("alice"));
+        for (String name : List.of("100% done", "1000 tasks", "todo_list", "todo list")) {
+            Board board = boardRepository.save(Builders.buildBoard(name, alice));
+            board.addUser(alice);
+        }
+
+        assertThat(boardRepository.findRowsByMemberIdAndName(alice.getId(), LikePatterns.escape("0%")))
+                .extracting(BoardRow::name).containsExactly("100% done");
+        assertThat(boardRepository.findRowsByMemberIdAndName(alice.getId(), LikePatterns.escape("%")))
+                .extracting(BoardRow::name).containsExactly("100% done");
+        assertThat(boardRepository.findRowsByMemberIdAndName(alice.getId(), LikePatterns.escape("o_l")))
+                .extracting(BoardRow::name).containsExactly("todo_list");
+    }
+
     @Transactional
     @Test
     void tasksLazyLoadingAndBoardTasks() {
@@ -108,4 +132,32 @@ class BoardRepositoryTest {
         assertThat(loaded.getTasks()).extracting(Task::getTitle)
                 .contains("Tarea2");
     }
+
+    @Test
+    void existsByIdAndUsersId_onLargeBoard_runsOneQueryWithoutLoadingMembers() {
+        User creator = userRepository.save(Builders.buildUser("creator"));
+        Board board = Builders.buildBoard("Grande", creator);
+        for (int i = 0; i < 5_000; i++) {
+            User member = Builders.buildUser("member" + i);
+            entityManager.persist(member);
+            board.addUser(member);
+        }
+        User outsider = userRepository.save(Builders.buildUser("outsider"));
+        board = boardRepository.save(board);
+        Long lastMemberId = board.getUsers().stream().mapToLong(User::getId).max().getAsLong();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics stats = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        assertThat(boardRepository.existsByIdAndUsersId(board.getId(), lastMemberId)).isTrue();
+        assertThat(boardRepository.existsByIdAndUsersId(board.getId(), outsider.getId())).isFalse();
+
+        // Una sentencia por comprobación, sin cargar entidades ni la colección de miembros
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+    }
 }
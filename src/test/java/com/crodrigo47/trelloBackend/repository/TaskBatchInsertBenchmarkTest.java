@@ -0,0 +1,73 @@
+package com.crodrigo47.trelloBackend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Inserta 100k tareas por JPA en transacciones de 1.000 y saca filas/segundo y sentencias
+ * JDBC ejecutadas. No corre con el resto de tests:
+ *
+ *   mvn test -Dtest=TaskBatchInsertBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskBatchInsertBenchmarkTest {
+
+    private static final int TASKS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired UserRepository userRepository;
+    @Autowired BoardRepository boardRepository;
+    @Autowired TaskRepository taskRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @PersistenceContext EntityManager entityManager;
+
+    @Test
+    void insert100kTasks() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        User user = tx.execute(s -> userRepository.save(Builders.buildUser("bench")));
+        Board board = tx.execute(s -> boardRepository.save(Builders.buildBoard("bench", user)));
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        long start = System.nanoTime();
+        for (int done = 0; done < TASKS; done += CHUNK) {
+            int from = done;
+            tx.executeWithoutResult(s -> {
+                Board boardRef = entityManager.getReference(Board.class, board.getId());
+                User userRef = entityManager.getReference(User.class, user.getId());
+                for (int i = from; i < from + CHUNK; i++) {
+                    entityManager.persist(Builders.buildTask("t" + i, boardRef, userRef, userRef));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("inserted %d tasks in %d ms: %d rows/s, %d JDBC statements prepared%n",
+                TASKS, millis, TASKS * 1000L / Math.max(1, millis), stats.getPrepareStatementCount());
+        assertThat(taskRepository.count()).isEqualTo(TASKS);
+    }
+}
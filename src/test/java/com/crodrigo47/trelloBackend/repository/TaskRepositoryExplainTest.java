@@ -0,0 +1,132 @@
+package com.crodrigo47.trelloBackend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.User;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:explain;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.crodrigo47.trelloBackend.repository.TaskRepositoryExplainTest$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TaskRepositoryExplainTest {
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired TaskRepository taskRepository;
+    @Autowired TestEntityManager entityManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    User member;
+    Board board;
+
+    @BeforeEach
+    void seed() {
+        List<User> users = new ArrayList<>();
+        for (int u = 0; u < 20; u++) {
+            users.add(entityManager.persist(Builders.buildUser("user" + u)));
+        }
+        member = users.get(0);
+        for (int b = 0; b < 40; b++) {
+            Board seeded = Builders.buildBoard("board" + b, users.get(b % users.size()));
+            for (int u = 0; u < 5; u++) {
+                seeded.addUser(users.get((b + u) % users.size()));
+            }
+            entityManager.persist(seeded);
+            for (int t = 0; t < 20; t++) {
+                Task task = Builders.buildTaskWithStatus("t" + t, seeded, seeded.getCreatedBy(),
+                        users.get((b + t) % users.size()), Task.Status.values()[t % Task.Status.values().length]);
+                entityManager.persist(task);
+            }
+            if (b == 0) board = seeded;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    /**
+     * Ejecuta el finder, toma la consulta sobre 'task' que genera Hibernate y falla si
+     * el plan de H2 recorre entera alguna tabla. 'params' son los valores de los '?' en orden.
+     */
+    private void assertUsesIndexes(Runnable finder, Object... params) {
+        finder.run();
+        String sql = SqlCapture.STATEMENTS.stream()
+                .filter(q -> q.contains(" from task "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No query on task captured"));
+        assertThat(sql.chars().filter(c -> c == '?').count())
+                .as("parameters of %s", sql)
+                .isEqualTo(params.length);
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params));
+        assertThat(plan).as("plan of %s", sql).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void findByBoardIdAndBoardUsersId_usesIndexes() {
+        assertUsesIndexes(() -> taskRepository.findByBoardIdAndBoardUsersId(board.getId(), member.getId()),
+                board.getId(), member.getId());
+    }
+
+    @Test
+    void findByAssignedToIdAndBoardUsersId_usesIndexes() {
+        assertUsesIndexes(() -> taskRepository.findByAssignedToIdAndBoardUsersId(member.getId(), member.getId()),
+                member.getId(), member.getId());
+    }
+
+    @Test
+    void findByBoardIdAndStatusAndBoardUsersId_usesIndexes() {
+        assertUsesIndexes(() -> taskRepository.findByBoardIdAndStatusAndBoardUsersId(
+                        board.getId(), Task.Status.DONE, member.getId()),
+                board.getId(), Task.Status.DONE.name(), member.getId());
+    }
+
+    @Test
+    void keysetFinders_useIndexes() {
+        assertUsesIndexes(() -> taskRepository.findByBoardIdAndIdGreaterThanOrderByIdAsc(
+                        board.getId(), 0L, Limit.of(10)),
+                board.getId(), 0L, 10);
+        SqlCapture.STATEMENTS.clear();
+        assertUsesIndexes(() -> taskRepository.findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(
+                        board.getId(), member.getId(), 0L, Limit.of(10)),
+                board.getId(), member.getId(), 0L, 10);
+    }
+
+    @Test
+    void findChangedAfter_usesIndexes() {
+        LocalDateTime since = LocalDateTime.of(2020, 1, 1, 0, 0);
+        assertUsesIndexes(() -> taskRepository.findChangedAfter(board.getId(), since, 0L, Limit.of(10)),
+                board.getId(), since, since, 0L, 10);
+    }
+}
@@ -3,12 +3,14 @@ package com.crodrigo47.trelloBackend.repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import com.crodrigo47.trelloBackend.helper.Builders;
 import com.crodrigo47.trelloBackend.model.Board;
@@ -102,6 +104,37 @@ class TaskRepositoryTest {
                 .containsExactlyInAnyOrder("tarea1", "tarea2");
     }
 
+    @Test
+    void keysetPages_coverAllTasksWithoutOverlap() {
+        User user = userRepository.save(Builders.buildUser("alice"));
+        User outsider = userRepository.save(Builders.buildUser("mallory"));
+        Board board = Builders.buildBoard("Programación", user);
+        board.getUsers().add(user);
+        boardRepository.save(board);
+        for (int i = 0; i < 7; i++) {
+            taskRepository.save(Builders.buildTask("tarea" + i, board, user, user));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        long afterId = 0L;
+        List<Task> page;
+        do {
+            page = taskRepository.findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(
+                    board.getId(), user.getId(), afterId, Limit.of(3));
+            page.forEach(t -> seen.add(t.getId()));
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 3);
+
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates().isSorted();
+        assertThat(taskRepository.findByBoardIdAndIdGreaterThanOrderByIdAsc(board.getId(), seen.get(4), Limit.of(10)))
+                .extracting(Task::getId)
+                .containsExactly(seen.get(5), seen.get(6));
+        assertThat(taskRepository.findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(
+                board.getId(), outsider.getId(), 0L, Limit.of(10))).isEmpty();
+    }
+
     @Test
     void findByAssignedToId_returnsList() {
         User user = userRepository.save(Builders.buildUser("alice"));
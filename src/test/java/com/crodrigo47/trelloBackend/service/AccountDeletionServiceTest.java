@@ -0,0 +1,273 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.crodrigo47.trelloBackend.exception.UserNotFoundException;
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.AccountDeletion;
+import com.crodrigo47.trelloBackend.model.AccountDeletion.Phase;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.TaskTombstone;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+import com.crodrigo47.trelloBackend.repository.TaskTombstoneRepository;
+import com.crodrigo47.trelloBackend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Tandas de 3 para que cada fase necesite varias vueltas; el worker no arranca
+@DataJpaTest(properties = {"account.deletion.enabled=false", "account.deletion.chunk-size=3"})
+@Import({AccountDeletionService.class, BoardEventBroadcaster.class, BoardDeleter.class, BoardAclCache.class,
+        BoardSyncService.class, SimpleMeterRegistry.class})
+class AccountDeletionServiceTest {
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User alice;
+    private User bob;
+    private Board aliceBoard;
+    private Board bobBoard;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(Builders.buildUser("alice"));
+        bob = entityManager.persist(Builders.buildUser("bob"));
+
+        aliceBoard = Builders.buildBoard("alice board", alice);
+        aliceBoard.addUser(alice);
+        aliceBoard.addUser(bob);
+        entityManager.persist(aliceBoard);
+
+        bobBoard = Builders.buildBoard("bob board", bob);
+        bobBoard.addUser(bob);
+        bobBoard.addUser(alice);
+        entityManager.persist(bobBoard);
+
+        for (int i = 0; i < 5; i++) {
+            entityManager.persist(Builders.buildTask("in alice board " + i, aliceBoard, bob, bob));
+        }
+        for (int i = 0; i < 4; i++) {
+            entityManager.persist(Builders.buildTask("created by alice " + i, bobBoard, alice, null));
+            entityManager.persist(Builders.buildTask("assigned to alice " + i, bobBoard, bob, alice));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void processPending_removesAccountAndKeepsOthersWork() {
+        accountDeletionService.request(alice.getId());
+
+        accountDeletionService.processPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.findById(alice.getId())).isEmpty();
+        assertThat(boardRepository.findById(aliceBoard.getId())).isEmpty();
+        assertThat(boardRepository.findMemberIdsById(bobBoard.getId())).containsExactly(bob.getId());
+
+        // Solo quedan las tareas del board de bob, todas a nombre de bob y sin asignar a alice
+        assertThat(taskRepository.findAll()).hasSize(8).allSatisfy(task -> {
+            assertThat(task.getBoard().getId()).isEqualTo(bobBoard.getId());
+            assertThat(task.getCreatedBy().getId()).isEqualTo(bob.getId());
+            assertThat(task.getAssignedTo()).isNull();
+        });
+
+        AccountDeletion deletion = accountDeletionService.getStatus(alice.getId()).orElseThrow();
+        assertThat(deletion.getPhase()).isEqualTo(Phase.DONE);
+        assertThat(deletion.getFinishedAt()).isNotNull();
+        // 4 desasignadas + 1 board + 4 reasignadas + 1 membresía
+        assertThat(deletion.getProcessedRows()).isEqualTo(10);
+    }
+
+    @Test
+    void processPending_resumesFromSavedPhaseAndRedoesWhatIsLeft() {
+        // Como si el nodo se hubiera caído a mitad: la fase guardada ya va por las membresías,
+        // pero alice sigue teniendo tareas asignadas y su board
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(AccountDeletion.builder()
+                .userId(alice.getId())
+                .phase(Phase.REMOVE_MEMBERSHIPS)
+                .processedRows(7)
+                .requestedAt(now)
+                .updatedAt(now)
+                .build());
+        entityManager.flush();
+
+        accountDeletionService.processPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.findById(alice.getId())).isEmpty();
+        assertThat(taskRepository.findAll()).extracting(Task::getAssignedTo).containsOnlyNulls();
+        assertThat(accountDeletionService.getStatus(alice.getId()))
+                .get().extracting(AccountDeletion::getPhase).isEqualTo(Phase.DONE);
+    }
+
+    @Test
+    void refreshBlockedUsers_readsPersistedRequestsAndReleasesExpiredTokens() {
+        // Peticiones de otro nodo (o de antes de un reinicio): este nodo no ha visto ningún request()
+        User carol = entityManager.persist(Builders.buildUser("carol"));
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(AccountDeletion.builder()
+                .userId(alice.getId()).phase(Phase.DELETE_BOARDS).requestedAt(now).updatedAt(now).build());
+        // Terminado hace una hora: sus tokens aún no han caducado (jwt.expiration-ms = 24h)
+        entityManager.persist(AccountDeletion.builder()
+                .userId(bob.getId()).phase(Phase.DONE).requestedAt(now.minusHours(2)).updatedAt(now.minusHours(1))
+                .finishedAt(now.minusHours(1)).build());
+        // Terminado hace dos días: ya no queda ningún token suyo
+        entityManager.persist(AccountDeletion.builder()
+                .userId(carol.getId()).phase(Phase.DONE).requestedAt(now.minusDays(3)).updatedAt(now.minusDays(2))
+                .finishedAt(now.minusDays(2)).build());
+        entityManager.flush();
+
+        assertThat(accountDeletionService.isPending(alice.getId())).isFalse();
+
+        accountDeletionService.refreshBlockedUsers();
+
+        assertThat(accountDeletionService.isPending(alice.getId())).isTrue();
+        assertThat(accountDeletionService.isPending(bob.getId())).isTrue();
+        assertThat(accountDeletionService.isPending(carol.getId())).isFalse();
+
+        // Pasa el tiempo: los tokens de bob ya han caducado y se suelta en el siguiente refresco
+        entityManager.getEntityManager().createQuery("UPDATE AccountDeletion d SET d.finishedAt = :at WHERE d.userId = :id")
+                .setParameter("at", now.minusDays(2)).setParameter("id", bob.getId()).executeUpdate();
+        accountDeletionService.refreshBlockedUsers();
+
+        assertThat(accountDeletionService.isPending(alice.getId())).isTrue();
+        assertThat(accountDeletionService.isPending(bob.getId())).isFalse();
+    }
+
+    @Test
+    void processPending_touchesOnlyTheBoardsOfEachChunk() {
+        // Una tarea de alice en un board donde no pinta nada más; queda en la segunda tanda (4 + 1 tareas, tandas de 3)
+        Board otherBoard = entityManager.persist(Builders.buildBoard("other board", bob));
+        entityManager.persist(Builders.buildTask("last assigned to alice", otherBoard, bob, alice));
+        entityManager.flush();
+        entityManager.clear();
+
+        accountDeletionService.request(alice.getId());
+        accountDeletionService.processPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.findById(alice.getId())).isEmpty();
+        assertThat(boardRepository.findById(otherBoard.getId())).get()
+                .extracting(Board::getChangeCount).isEqualTo(1L);
+    }
+
+    @Test
+    void processPending_deletedTasksLeaveTombstonesAndTouchTheirBoards() {
+        // Nadie a quien reasignarlas: un board sin creador y una tarea sin board
+        Board orphanBoard = entityManager.persist(Builders.buildBoard("orphan board", null));
+        Task inOrphanBoard = entityManager.persist(Builders.buildTask("in orphan board", orphanBoard, alice, null));
+        Task withoutBoard = entityManager.persist(Builders.buildTask("without board", null, alice, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        accountDeletionService.request(alice.getId());
+        accountDeletionService.processPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(taskRepository.findById(inOrphanBoard.getId())).isEmpty();
+        assertThat(taskRepository.findById(withoutBoard.getId())).isEmpty();
+        // El cliente del board lo ve en /changes y el ETag del board cambia
+        assertThat(tombstoneRepository.findAll()).extracting(TaskTombstone::getTaskId, TaskTombstone::getBoardId)
+                .containsExactly(tuple(inOrphanBoard.getId(), orphanBoard.getId()));
+        assertThat(boardRepository.findById(orphanBoard.getId())).get()
+                .extracting(Board::getChangeCount).isEqualTo(1L);
+    }
+
+    @Test
+    void processPending_leaseHeldByAnotherNode_leavesTheRequestAlone() {
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(AccountDeletion.builder()
+                .userId(alice.getId())
+                .phase(Phase.UNASSIGN_TASKS)
+                .requestedAt(now)
+                .updatedAt(now)
+                .lockedBy("other-node")
+                .lockedUntil(now.plusMinutes(5))
+                .build());
+        entityManager.flush();
+
+        accountDeletionService.processPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.findById(alice.getId())).isPresent();
+        assertThat(accountDeletionService.getStatus(alice.getId())).get()
+                .extracting(AccountDeletion::getPhase, AccountDeletion::getProcessedRows)
+                .containsExactly(Phase.UNASSIGN_TASKS, 0L);
+    }
+
+    @Test
+    void processPending_expiredLease_isTakenOver() {
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(AccountDeletion.builder()
+                .userId(alice.getId())
+                .phase(Phase.UNASSIGN_TASKS)
+                .requestedAt(now)
+                .updatedAt(now)
+                .lockedBy("crashed-node")
+                .lockedUntil(now.minusMinutes(1))
+                .build());
+        entityManager.flush();
+
+        accountDeletionService.processPending();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userRepository.findById(alice.getId())).isEmpty();
+        AccountDeletion deletion = accountDeletionService.getStatus(alice.getId()).orElseThrow();
+        assertThat(deletion.getPhase()).isEqualTo(Phase.DONE);
+        assertThat(deletion.getLockedBy()).isNull();
+    }
+
+    @Test
+    void request_isIdempotent() {
+        AccountDeletion first = accountDeletionService.request(alice.getId());
+        AccountDeletion second = accountDeletionService.request(alice.getId());
+
+        assertThat(second.getRequestedAt()).isEqualTo(first.getRequestedAt());
+        assertThat(second.getPhase()).isEqualTo(Phase.UNASSIGN_TASKS);
+        // Solo se registra: el usuario sigue ahí hasta que pase el worker
+        assertThat(userRepository.existsById(alice.getId())).isTrue();
+    }
+
+    @Test
+    void request_unknownUser_throws() {
+        assertThatThrownBy(() -> accountDeletionService.request(999_999L))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+}
@@ -0,0 +1,229 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoardAclCacheTest {
+
+    private static final long BOARD = 1L;
+    private static final long CREATOR = 10L;
+    private static final long MEMBER = 20L;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final BoardRepository boardRepository = mock(BoardRepository.class);
+    private final AtomicLong clock = new AtomicLong();
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private BoardAclCache cache(int maxSize) {
+        return cache(boardRepository, maxSize);
+    }
+
+    private BoardAclCache cache(BoardRepository repository, int maxSize) {
+        return new BoardAclCache(repository, registry, true, maxSize, Duration.ofSeconds(5), clock::get);
+    }
+
+    // Simula una transacción en el hilo actual: la escritura se hace visible en el commit
+    private static void inTransaction(Runnable beforeCommit, Runnable commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beforeCommit.run();
+            commit.run();
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCommit();
+            }
+            for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+                sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void repeatedLookups_loadMembersOnce() {
+        when(boardRepository.findMemberIdsById(BOARD)).thenReturn(List.of(MEMBER, CREATOR));
+        BoardAclCache cache = cache(10);
+
+        assertThat(cache.isMember(BOARD, MEMBER)).isTrue();
+        assertThat(cache.isMember(BOARD, CREATOR)).isTrue();
+        assertThat(cache.isMember(BOARD, 99L)).isFalse();
+
+        verify(boardRepository, times(1)).findMemberIdsById(BOARD);
+        verify(boardRepository, never()).existsByIdAndUsersId(anyLong(), anyLong());
+        assertThat(registry.get("board.acl.cache.gets").tag("result", "hit").counter().count()).isEqualTo(2);
+        assertThat(registry.get("board.acl.cache.gets").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(registry.get("board.acl.cache.hit.ratio").gauge().value()).isCloseTo(2.0 / 3, offset(1e-9));
+    }
+
+    @Test
+    void memberRemovedOnAnotherNode_isDeniedOnceChangeCountMoves() {
+        // Otro nodo quita a MEMBER: aquí no pasa por beginChange, solo cambia change_count
+        when(boardRepository.findMemberIdsById(BOARD))
+                .thenReturn(List.of(MEMBER, CREATOR))
+                .thenReturn(List.of(CREATOR));
+        BoardAclCache cache = cache(10);
+
+        assertThat(cache.isMember(BOARD, MEMBER, 4L)).isTrue();
+        assertThat(cache.isMember(BOARD, MEMBER, 4L)).isTrue();
+        assertThat(cache.isMember(BOARD, MEMBER, 5L)).isFalse();
+
+        verify(boardRepository, times(2)).findMemberIdsById(BOARD);
+    }
+
+    @Test
+    void memberRemovedBehindTheCache_isDeniedAfterTtl() {
+        when(boardRepository.findMemberIdsById(BOARD))
+                .thenReturn(List.of(MEMBER, CREATOR))
+                .thenReturn(List.of(CREATOR));
+        BoardAclCache cache = cache(10);
+
+        assertThat(cache.isMember(BOARD, MEMBER)).isTrue();
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThat(cache.isMember(BOARD, MEMBER)).isTrue();
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.isMember(BOARD, MEMBER)).isFalse();
+
+        verify(boardRepository, times(2)).findMemberIdsById(BOARD);
+    }
+
+    @Test
+    void boardCreated_isWrittenThroughAfterCommit() {
+        BoardAclCache cache = cache(10);
+
+        inTransaction(() -> {
+            cache.boardCreated(BOARD, CREATOR);
+            assertThat(cache.size()).isZero();
+        }, () -> {});
+
+        assertThat(cache.isMember(BOARD, CREATOR)).isTrue();
+        verify(boardRepository, never()).findMemberIdsById(anyLong());
+    }
+
+    @Test
+    void pendingChange_bypassesCache_untilTransactionEnds() {
+        AtomicBoolean memberInDb = new AtomicBoolean(true);
+        when(boardRepository.findMemberIdsById(BOARD))
+                .thenAnswer(inv -> memberInDb.get() ? List.of(CREATOR, MEMBER) : List.of(CREATOR));
+        when(boardRepository.existsByIdAndUsersId(BOARD, MEMBER)).thenAnswer(inv -> memberInDb.get());
+        BoardAclCache cache = cache(10);
+        assertThat(cache.isMember(BOARD, MEMBER)).isTrue();
+
+        inTransaction(() -> {
+            cache.beginChange(BOARD);
+            assertThat(cache.size()).isZero();
+        }, () -> {
+            memberInDb.set(false);
+            // Ya confirmado en BD pero antes de afterCompletion: no se sirve nada de la caché
+            assertThat(cache.isMember(BOARD, MEMBER)).isFalse();
+            assertThat(cache.size()).isZero();
+        });
+
+        assertThat(cache.isMember(BOARD, MEMBER)).isFalse();
+    }
+
+    @Test
+    void sizeIsBounded() {
+        when(boardRepository.findMemberIdsById(anyLong())).thenReturn(List.of(CREATOR));
+        BoardAclCache cache = cache(5);
+
+        for (long board = 1; board <= 50; board++) {
+            cache.isMember(board, CREATOR);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(5);
+        assertThat(registry.get("board.acl.cache.evictions").counter().count()).isGreaterThan(0);
+    }
+
+    @Test
+    void removedMember_isNeverAuthorizedAfterCommit_underConcurrentLookups() throws Exception {
+        int rounds = 200;
+        int readers = 8;
+        AtomicInteger violations = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        // stubOnly: sin registrar las invocaciones de miles de lecturas concurrentes
+        BoardRepository repository = mock(BoardRepository.class, withSettings().stubOnly());
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                AtomicBoolean memberInDb = new AtomicBoolean(true);
+                AtomicBoolean committed = new AtomicBoolean(false);
+                // La carga lee la BD y cede el hilo para forzar que el commit ocurra en mitad de ella
+                when(repository.findMemberIdsById(BOARD)).thenAnswer(inv -> {
+                    List<Long> members = memberInDb.get() ? List.of(CREATOR, MEMBER) : List.of(CREATOR);
+                    Thread.yield();
+                    return members;
+                });
+                when(repository.existsByIdAndUsersId(BOARD, MEMBER)).thenAnswer(inv -> memberInDb.get());
+
+                BoardAclCache cache = cache(repository, 10);
+                CountDownLatch start = new CountDownLatch(1);
+                CountDownLatch done = new CountDownLatch(readers);
+                AtomicBoolean stop = new AtomicBoolean(false);
+
+                for (int r = 0; r < readers; r++) {
+                    pool.submit(() -> {
+                        try {
+                            start.await();
+                            int checksAfterCommit = 0;
+                            while (checksAfterCommit < 50) {
+                                boolean afterCommit = committed.get();
+                                if (cache.isMember(BOARD, MEMBER) && afterCommit) {
+                                    violations.incrementAndGet();
+                                }
+                                if (afterCommit && stop.get()) {
+                                    checksAfterCommit++;
+                                }
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+
+                start.countDown();
+                Thread.yield();
+                inTransaction(() -> cache.beginChange(BOARD), () -> {
+                    memberInDb.set(false);
+                    committed.set(true);
+                });
+                stop.set(true);
+
+                assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+                assertThat(cache.isMember(BOARD, MEMBER)).isFalse();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(violations).hasValue(0);
+    }
+}
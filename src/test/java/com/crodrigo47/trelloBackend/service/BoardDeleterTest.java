@@ -0,0 +1,61 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Borrado en tandas: tamaño de tanda que no divide el número de tareas
+@DataJpaTest(properties = "board.delete.chunk-size=7")
+@Import({BoardDeleter.class, BoardAclCache.class, SimpleMeterRegistry.class})
+class BoardDeleterTest {
+
+    @Autowired
+    private BoardDeleter boardDeleter;
+
+    @Autowired
+    private BoardRepository boardRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void delete_inChunks_removesOnlyThatBoard() {
+        User alice = entityManager.persist(Builders.buildUser("alice"));
+        Board doomed = Builders.buildBoard("doomed", alice);
+        doomed.addUser(alice);
+        entityManager.persist(doomed);
+        Board kept = Builders.buildBoard("kept", alice);
+        kept.addUser(alice);
+        entityManager.persist(kept);
+        for (int i = 0; i < 30; i++) {
+            entityManager.persist(Builders.buildTask("d" + i, doomed, alice, alice));
+        }
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(Builders.buildTask("k" + i, kept, alice, alice));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        boardDeleter.delete(doomed.getId());
+
+        assertThat(boardRepository.findById(doomed.getId())).isEmpty();
+        assertThat(boardRepository.existsByIdAndUsersId(kept.getId(), alice.getId())).isTrue();
+        assertThat(taskRepository.findAll()).hasSize(3)
+                .allSatisfy(t -> assertThat(t.getBoard().getId()).isEqualTo(kept.getId()));
+    }
+}
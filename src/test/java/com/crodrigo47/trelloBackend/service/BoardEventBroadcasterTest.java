@@ -0,0 +1,236 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.crodrigo47.trelloBackend.dto.BoardEventDto.Type;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Reparto de eventos sin red: cada suscriptor es un SseEmitter que en vez de escribir en la
+ * respuesta anota el evento. Así se mide el coste del propio reparto (colas, pool de envío)
+ * con miles de suscriptores sin abrir miles de conexiones.
+ */
+class BoardEventBroadcasterTest {
+
+    private static final Long BOARD = 1L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoardEventBroadcaster broadcaster;
+
+    private BoardEventBroadcaster broadcaster(int bufferSize) {
+        broadcaster = new BoardEventBroadcaster(new DefaultListableBeanFactory().getBeanProvider(ObjectMapper.class),
+                meterRegistry, bufferSize, 4, Duration.ofMinutes(5), Duration.ZERO);
+        return broadcaster;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void fiveThousandSubscribers_everyEventReachesEveryone() throws Exception {
+        int subscribers = 5_000;
+        int events = 20;
+        broadcaster(64);
+
+        AtomicReference<CountDownLatch> pending = new AtomicReference<>();
+        long[][] receivedAt = new long[events][subscribers];
+        AtomicReference<Integer> current = new AtomicReference<>(0);
+        for (int i = 0; i < subscribers; i++) {
+            int subscriber = i;
+            broadcaster.subscribe(BOARD, (long) i, new RecordingEmitter(data -> {
+                receivedAt[current.get()][subscriber] = System.nanoTime();
+                pending.get().countDown();
+            }));
+        }
+
+        long[] publishedAt = new long[events];
+        for (int e = 0; e < events; e++) {
+            current.set(e);
+            pending.set(new CountDownLatch(subscribers));
+            publishedAt[e] = System.nanoTime();
+            broadcaster.publish(Type.TASK_DELETED, BOARD, (long) e, null);
+            assertThat(pending.get().await(30, TimeUnit.SECONDS)).as("event %d delivered to everyone", e).isTrue();
+        }
+
+        long[] latencies = new long[events * subscribers];
+        for (int e = 0; e < events; e++) {
+            for (int s = 0; s < subscribers; s++) {
+                latencies[e * subscribers + s] = receivedAt[e][s] - publishedAt[e];
+            }
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%d subscribers x %d events: p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                subscribers, events, percentile(latencies, 0.50), percentile(latencies, 0.95),
+                percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+
+        assertThat(meterRegistry.get("board.events.delivered").counter().count()).isEqualTo(subscribers * events);
+        assertThat(meterRegistry.get("board.events.coalesced").counter().count()).isZero();
+    }
+
+    @Test
+    void slowSubscriber_isCoalescedAndDoesNotHoldBackOthers() throws Exception {
+        broadcaster(4);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> slowEvents = new CopyOnWriteArrayList<>();
+        broadcaster.subscribe(BOARD, 1L, new RecordingEmitter(data -> {
+            awaitQuietly(release);
+            slowEvents.add(data);
+        }));
+        BlockingQueue<String> fast = new LinkedBlockingQueue<>();
+        broadcaster.subscribe(BOARD, 2L, new RecordingEmitter(fast::add));
+
+        // Con el lento bloqueado, el otro sigue recibiendo cada evento
+        for (int e = 0; e < 20; e++) {
+            broadcaster.publish(Type.TASK_DELETED, BOARD, (long) e, null);
+            assertThat(fast.poll(5, TimeUnit.SECONDS)).contains("\"taskId\":" + e);
+        }
+        release.countDown();
+        waitUntil(() -> slowEvents.stream().anyMatch(data -> data.contains("RESYNC")));
+        Thread.sleep(50);
+
+        // Lo que no cupo en la cola se ha convertido en RESYNC: el que estaba enviándose más buffer-size pendientes
+        assertThat(slowEvents.size()).isLessThanOrEqualTo(1 + 4);
+        assertThat(meterRegistry.get("board.events.coalesced").counter().count()).isPositive();
+    }
+
+    @Test
+    void memberRemoved_closesOnlyThatUsersStreams() {
+        broadcaster(8);
+        broadcaster.subscribe(BOARD, 1L, new RecordingEmitter(data -> { }));
+        broadcaster.subscribe(BOARD, 2L, new RecordingEmitter(data -> { }));
+        broadcaster.subscribe(BOARD, 2L, new RecordingEmitter(data -> { }));
+
+        broadcaster.publish(Type.MEMBER_REMOVED, BOARD, null, 2L);
+        assertThat(broadcaster.subscriberCount(BOARD)).isEqualTo(1);
+
+        broadcaster.publish(Type.BOARD_DELETED, BOARD, null, null);
+        assertThat(broadcaster.subscriberCount(BOARD)).isZero();
+    }
+
+    @Test
+    void subscribe_checksAccessAfterRegisteringAndUndoesOnFailure() {
+        broadcaster(8);
+        List<Integer> countsDuringCheck = new CopyOnWriteArrayList<>();
+
+        broadcaster.subscribe(BOARD, 1L, () -> countsDuringCheck.add(broadcaster.subscriberCount(BOARD)));
+        assertThatThrownBy(() -> broadcaster.subscribe(BOARD, 2L, () -> {
+            countsDuringCheck.add(broadcaster.subscriberCount(BOARD));
+            throw new IllegalStateException("Not a member");
+        })).hasMessage("Not a member");
+
+        // Durante la comprobación el suscriptor ya estaba dado de alta (un MEMBER_REMOVED lo habría cerrado)
+        assertThat(countsDuringCheck).containsExactly(1, 2);
+        assertThat(broadcaster.subscriberCount(BOARD)).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeat_closesSubscribersThatLostAccessOnAnotherNode() {
+        broadcaster(8);
+        AtomicBoolean member = new AtomicBoolean(true);
+        broadcaster.subscribe(BOARD, 1L, () -> { });
+        broadcaster.subscribe(BOARD, 2L, () -> {
+            if (!member.get()) {
+                throw new IllegalStateException("Not a member");
+            }
+        });
+
+        broadcaster.sendHeartbeats();
+        assertThat(broadcaster.subscriberCount(BOARD)).isEqualTo(2);
+
+        // La baja se hizo en otro nodo: aquí no llega ningún MEMBER_REMOVED
+        member.set(false);
+        broadcaster.sendHeartbeats();
+        assertThat(broadcaster.subscriberCount(BOARD)).isEqualTo(1);
+    }
+
+    @Test
+    void publishInsideTransaction_onlyDeliversAfterCommit() throws Exception {
+        broadcaster(8);
+        List<String> received = new CopyOnWriteArrayList<>();
+        broadcaster.subscribe(BOARD, 1L, new RecordingEmitter(received::add));
+
+        // Rollback: las sincronizaciones se descartan sin llamar a afterCommit
+        TransactionSynchronizationManager.initSynchronization();
+        broadcaster.publish(Type.TASK_DELETED, BOARD, 1L, null);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        broadcaster.publish(Type.TASK_DELETED, BOARD, 2L, null);
+        assertThat(received).isEmpty();
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        waitUntil(() -> !received.isEmpty());
+        Thread.sleep(50);
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0)).contains("\"taskId\":2");
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    // Emisor sin respuesta HTTP detrás: entrega el texto del evento a 'onSend'
+    private static final class RecordingEmitter extends SseEmitter {
+        private final Consumer<String> onSend;
+
+        RecordingEmitter(Consumer<String> onSend) {
+            this.onSend = onSend;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            onSend.accept(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+    }
+}
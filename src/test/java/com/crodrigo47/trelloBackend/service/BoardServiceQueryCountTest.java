@@ -0,0 +1,209 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.crodrigo47.trelloBackend.dto.BoardDto;
+import com.crodrigo47.trelloBackend.dto.BoardMemberDto;
+import com.crodrigo47.trelloBackend.dto.BoardSnapshotDto;
+import com.crodrigo47.trelloBackend.dto.DtoMapper;
+import com.crodrigo47.trelloBackend.dto.TaskCreatedDto;
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.User;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Regresión N+1: el listado de boards debe costar siempre las mismas sentencias SQL
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BoardService.class, BoardSyncService.class, BoardEventBroadcaster.class, OptimisticRetry.class,
+        BoardDeleter.class, BoardAclCache.class, SimpleMeterRegistry.class})
+class BoardServiceQueryCountTest {
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 60})
+    void getBoardDtosForCurrentUser_usesThreeStatements(int boardCount) {
+        User alice = entityManager.persist(Builders.buildUser("alice"));
+        User bob = entityManager.persist(Builders.buildUser("bob"));
+        for (int i = 0; i < boardCount; i++) {
+            Board board = Builders.buildBoard("Board " + i, i % 2 == 0 ? alice : bob);
+            board.addUser(alice);
+            board.addUser(bob);
+            entityManager.persist(board);
+            entityManager.persist(Builders.buildTask("Tarea A" + i, board, alice, bob));
+            entityManager.persist(Builders.buildTask("Tarea B" + i, board, bob, null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics stats = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<BoardDto> boards = boardService.getBoardDtosForCurrentUser(alice, null);
+
+        assertThat(boards).hasSize(boardCount);
+        assertThat(boards).allSatisfy(dto -> {
+            assertThat(dto.userIds()).containsExactlyInAnyOrder(alice.getId(), bob.getId());
+            assertThat(dto.taskIds()).hasSize(2);
+            assertThat(dto.createdById()).isIn(alice.getId(), bob.getId());
+        });
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+    }
+
+    // Alta de una tarea: mismas sentencias y misma respuesta tenga el board 0 o 2.000 tareas
+    @ParameterizedTest
+    @ValueSource(ints = {0, 100, 2000})
+    void addTaskToBoard_costDoesNotDependOnBoardSize(int existingTasks) throws Exception {
+        User alice = entityManager.persist(Builders.buildUser("alice"));
+        Board board = Builders.buildBoard("Grande", alice);
+        board.addUser(alice);
+        entityManager.persist(board);
+        for (int i = 0; i < existingTasks; i++) {
+            entityManager.persist(Builders.buildTask("Tarea " + i, board, alice, alice));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics stats = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        TaskCreatedDto created = boardService.addTaskWithBoardVersion(
+                board.getId(), Builders.buildTask("Nueva", null, null, null), alice);
+        entityManager.flush();
+
+        assertThat(created.task().id()).isNotNull();
+        assertThat(created.boardVersion()).isEqualTo(1);
+        assertThat(stats.getCollectionLoadCount()).isZero();
+        assertThat(stats.getEntityInsertCount()).isEqualTo(1);
+        // board, membresía, como mucho una llamada a la secuencia, insert, contador de cambios del board y su lectura
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+
+        String json = new ObjectMapper().findAndRegisterModules().writeValueAsString(created);
+        assertThat(json).doesNotContain("taskIds");
+        assertThat(json.length()).isLessThan(320);
+    }
+
+    // Borrado de una tarea: no carga board.getTasks() ni depende del tamaño del board
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 2000})
+    void removeTaskFromBoard_costDoesNotDependOnBoardSize(int existingTasks) {
+        User alice = entityManager.persist(Builders.buildUser("alice"));
+        Board board = Builders.buildBoard("Grande", alice);
+        board.addUser(alice);
+        entityManager.persist(board);
+        Task target = null;
+        for (int i = 0; i < existingTasks; i++) {
+            target = entityManager.persist(Builders.buildTask("Tarea " + i, board, alice, alice));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Long targetId = target.getId();
+
+        Statistics stats = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        boardService.removeTaskFromBoard(board.getId(), targetId, alice);
+
+        assertThat(entityManager.find(Task.class, targetId)).isNull();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+        // board, creador de la tarea, membresía (ACL), delete, contador de cambios, tombstone y su purga;
+        // más el find de la comprobación
+        assertThat(stats.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+    }
+
+    // Borrado de un board: sentencias por conjuntos, sin cargar tareas ni miembros
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 2000})
+    void deleteBoard_costDoesNotDependOnBoardSize(int existingTasks) {
+        User alice = entityManager.persist(Builders.buildUser("alice"));
+        User bob = entityManager.persist(Builders.buildUser("bob"));
+        Board board = Builders.buildBoard("Grande", alice);
+        board.addUser(alice);
+        board.addUser(bob);
+        entityManager.persist(board);
+        for (int i = 0; i < existingTasks; i++) {
+            entityManager.persist(Builders.buildTask("Tarea " + i, board, alice, bob));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics stats = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        boardService.deleteBoard(board.getId(), alice);
+
+        // board (con su creador), DELETE task, DELETE task_tombstone, DELETE board_user, DELETE board
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(stats.getCollectionLoadCount()).isZero();
+        assertThat(entityManager.find(Board.class, board.getId())).isNull();
+        assertThat(entityManager.getEntityManager()
+                .createQuery("select count(t) from Task t", Long.class).getSingleResult()).isZero();
+        assertThat(entityManager.find(User.class, bob.getId())).isNotNull();
+    }
+
+    // Vista completa de un board: mismas consultas de proyección sea cual sea su tamaño
+    @ParameterizedTest
+    @ValueSource(ints = {1, 100, 2000})
+    void getBoardSnapshot_usesFixedProjectionQueries(int existingTasks) {
+        User alice = entityManager.persist(Builders.buildUser("alice"));
+        Board board = Builders.buildBoard("Grande", alice);
+        board.addUser(alice);
+        for (int i = 0; i < 5; i++) {
+            board.addUser(entityManager.persist(Builders.buildUser("member" + i)));
+        }
+        entityManager.persist(board);
+        for (int i = 0; i < existingTasks; i++) {
+            Task task = Builders.buildTask("Tarea " + i, board, alice, i % 2 == 0 ? alice : null);
+            task.setStatus(i % 3 == 0 ? Task.Status.DONE : Task.Status.FUTURE);
+            entityManager.persist(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics stats = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        BoardSnapshotDto snapshot = boardService.getBoardSnapshot(board.getId(), alice, null);
+
+        assertThat(snapshot.name()).isEqualTo("Grande");
+        assertThat(snapshot.members()).hasSize(6).extracting(BoardMemberDto::username).contains("alice");
+        assertThat(snapshot.tasks()).hasSize(existingTasks)
+                .allSatisfy(t -> assertThat(t.boardId()).isEqualTo(board.getId()));
+        // Las tareas sin asignar también salen
+        assertThat(snapshot.tasks().get(0).assignedToId()).isEqualTo(alice.getId());
+        // fila del board, miembros, tareas (alice es la creadora: no hace falta la membresía)
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+
+        BoardSnapshotDto done = boardService.getBoardSnapshot(board.getId(), alice, Task.Status.DONE);
+        assertThat(done.tasks()).hasSize((existingTasks + 2) / 3)
+                .allSatisfy(t -> assertThat(t.status()).isEqualTo(Task.Status.DONE));
+    }
+}
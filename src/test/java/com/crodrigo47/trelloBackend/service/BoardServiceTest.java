@@ -5,16 +5,30 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.crodrigo47.trelloBackend.dto.BoardChildId;
+import com.crodrigo47.trelloBackend.dto.BoardDto;
+import com.crodrigo47.trelloBackend.dto.BoardRow;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
 import com.crodrigo47.trelloBackend.exception.BoardNotFoundException;
+import com.crodrigo47.trelloBackend.exception.ConcurrentUpdateException;
+import com.crodrigo47.trelloBackend.exception.InvalidBatchException;
+import com.crodrigo47.trelloBackend.exception.InvalidCursorException;
+import com.crodrigo47.trelloBackend.exception.TaskNotFoundException;
 import com.crodrigo47.trelloBackend.helper.Builders;
 import com.crodrigo47.trelloBackend.model.Board;
 import com.crodrigo47.trelloBackend.model.Task;
@@ -23,6 +37,8 @@ import com.crodrigo47.trelloBackend.repository.BoardRepository;
 import com.crodrigo47.trelloBackend.repository.TaskRepository;
 import com.crodrigo47.trelloBackend.repository.UserRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class BoardServiceTest {
 
@@ -35,6 +51,23 @@ class BoardServiceTest {
     @Mock
     TaskRepository taskRepository;
 
+    @Mock
+    BoardAclCache boardAclCache;
+
+    @Mock
+    BoardDeleter boardDeleter;
+
+    @Mock
+    BoardSyncService boardSyncService;
+
+    @Mock
+    BoardEventBroadcaster boardEvents;
+
+    // Reintentos reales sobre un gestor de transacciones simulado, sin esperas
+    @Spy
+    OptimisticRetry optimisticRetry = new OptimisticRetry(
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 3, Duration.ZERO, Duration.ZERO);
+
     @InjectMocks
     BoardService boardService;
 
@@ -53,6 +86,42 @@ class BoardServiceTest {
         verify(boardRepository).findByUsersId(user.getId());
     }
 
+    @Test
+    void getBoardDtosForCurrentUser_assemblesIdsPerBoard() {
+        User user = Builders.buildUserWithId("bob", 1L);
+        when(boardRepository.findRowsByMemberId(1L)).thenReturn(List.of(
+                new BoardRow(10L, "Diseño", "d", 1L, 0L),
+                new BoardRow(11L, "Programación", "p", 2L, 3L)));
+        when(boardRepository.findMemberIdsByBoardIds(List.of(10L, 11L))).thenReturn(List.of(
+                new BoardChildId(10L, 1L), new BoardChildId(11L, 1L), new BoardChildId(11L, 2L)));
+        when(boardRepository.findTaskIdsByBoardIds(List.of(10L, 11L))).thenReturn(List.of(
+                new BoardChildId(10L, 100L)));
+
+        List<BoardDto> result = boardService.getBoardDtosForCurrentUser(user, null);
+
+        assertThat(result).containsExactly(
+                new BoardDto(10L, "Diseño", "d", Set.of(1L), Set.of(100L), 1L, 0L),
+                new BoardDto(11L, "Programación", "p", Set.of(1L, 2L), Set.of(), 2L, 3L));
+    }
+
+    @Test
+    void getBoardDtosForCurrentUser_withName_filtersAndSkipsIdQueriesWhenEmpty() {
+        User user = Builders.buildUserWithId("bob", 1L);
+        when(boardRepository.findRowsByMemberIdAndName(1L, "nada")).thenReturn(List.of());
+
+        assertThat(boardService.getBoardDtosForCurrentUser(user, "nada")).isEmpty();
+        verify(boardRepository, never()).findMemberIdsByBoardIds(any());
+        verify(boardRepository, never()).findTaskIdsByBoardIds(any());
+    }
+
+    @Test
+    void getBoardDtosForCurrentUser_withWildcardName_escapesIt() {
+        User user = Builders.buildUserWithId("bob", 1L);
+        when(boardRepository.findRowsByMemberIdAndName(1L, "100\\%")).thenReturn(List.of());
+
+        assertThat(boardService.getBoardDtosForCurrentUser(user, "100%")).isEmpty();
+    }
+
     @Test
     void getBoardById_returnsBoard() {
         User user = Builders.buildUserWithId("bob", 1L);
@@ -64,6 +133,33 @@ class BoardServiceTest {
         assertThat(result.getName()).isEqualTo("Diseño");
     }
 
+    @Test
+    void getBoardById_member_isCheckedWithoutLoadingBoardUsers() {
+        User creator = Builders.buildUserWithId("bob", 1L);
+        User member = Builders.buildUserWithId("alice", 2L);
+        Board board = Builders.buildBoardWithId("Diseño", 1L, creator);
+        board.setUsers(null); // cualquier acceso a la colección fallaría
+        when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+        when(boardAclCache.isMember(1L, 2L, 0L)).thenReturn(true);
+
+        Board result = boardService.getBoardById(1L, member);
+
+        assertThat(result).isSameAs(board);
+        verify(boardAclCache).isMember(1L, 2L, 0L);
+    }
+
+    @Test
+    void getBoardById_notMember_throwsException() {
+        User creator = Builders.buildUserWithId("bob", 1L);
+        User outsider = Builders.buildUserWithId("mallory", 2L);
+        Board board = Builders.buildBoardWithId("Diseño", 1L, creator);
+        when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+
+        assertThatThrownBy(() -> boardService.getBoardById(1L, outsider))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Not authorized");
+    }
+
     @Test
     void getBoardById_boardNotFound_throwsException() {
         User user = Builders.buildUserWithId("bob", 1L);
@@ -99,6 +195,40 @@ class BoardServiceTest {
         assertThat(result.getName()).isEqualTo("New Name");
     }
 
+    @Test
+    void updateBoard_staleVersion_throwsConflictWithoutSaving() {
+        User user = Builders.buildUserWithId("bob", 1L);
+        Board existing = Builders.buildBoardWithId("Old Name", 1L, user);
+        existing.setVersion(4L);
+        Board updated = Builders.buildBoardWithId("New Name", 1L, user);
+        updated.setVersion(3L);
+
+        when(boardRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        assertThatThrownBy(() -> boardService.updateBoard(updated, user))
+                .isInstanceOf(ConcurrentUpdateException.class)
+                .extracting("currentVersion").isEqualTo(4L);
+        verify(boardRepository, never()).save(any());
+    }
+
+    @Test
+    void addUserToBoard_lostRace_isRetried() {
+        User creator = Builders.buildUserWithId("bob", 1L);
+        User newMember = Builders.buildUserWithId("alice", 2L);
+        Board board = Builders.buildBoardWithId("Board", 1L, creator);
+
+        when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(newMember));
+        when(boardRepository.save(board))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Board.class, 1L))
+                .thenReturn(board);
+
+        Board result = boardService.addUserToBoard(1L, 2L, creator);
+
+        assertThat(result.getUsers()).contains(newMember);
+        verify(boardRepository, times(2)).findById(1L);
+    }
+
     @Test
     void updateBoard_notCreator_throwsException() {
         User creator = Builders.buildUserWithId("bob", 1L);
@@ -112,7 +242,7 @@ class BoardServiceTest {
     }
 
     @Test
-    void deleteBoard_callsRepository() {
+    void deleteBoard_usesBulkDeleter() {
         User user = Builders.buildUserWithId("bob", 1L);
         Board board = Builders.buildBoardWithId("Board", 1L, user);
 
@@ -120,7 +250,23 @@ class BoardServiceTest {
 
         boardService.deleteBoard(1L, user);
 
-        verify(boardRepository).delete(board);
+        verify(boardDeleter).delete(1L);
+        verify(boardRepository, never()).delete(any());
+    }
+
+    @Test
+    void deleteBoard_notCreator_throwsException() {
+        User creator = Builders.buildUserWithId("bob", 1L);
+        User member = Builders.buildUserWithId("alice", 2L);
+        Board board = Builders.buildBoardWithId("Board", 1L, creator);
+
+        when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+        when(boardAclCache.isMember(1L, 2L, 0L)).thenReturn(true);
+
+        assertThatThrownBy(() -> boardService.deleteBoard(1L, member))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Only the creator");
+        verifyNoInteractions(boardDeleter);
     }
 
     @Test
@@ -129,14 +275,43 @@ void getTasksFromBoard_returnTasks() {
     Board board = Builders.buildBoardWithId("Diseño", 1L, user);
     Task task1 = Builders.buildTaskWithId("Tarea1", 10L, board, user, user);
     Task task2 = Builders.buildTaskWithId("Tarea2", 11L, board, user, user);
-    board.addTask(task1);
-    board.addTask(task2);
 
     when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    // Sin cursor ni limit: todas, sin límite
+    when(taskRepository.findByBoardIdAndIdGreaterThanOrderByIdAsc(1L, 0L, Limit.unlimited()))
+            .thenReturn(List.of(task1, task2));
 
-    var tasks = boardService.getTasksFromBoard(1L, user);
+    var page = boardService.getTasksFromBoard(1L, user, null, null);
 
-    assertThat(tasks).containsExactlyInAnyOrder(task1, task2);
+    assertThat(page.items()).containsExactly(task1, task2);
+    assertThat(page.nextCursor()).isNull();
+}
+
+@Test
+void getTasksFromBoard_fullPage_returnsCursorForNextPage() {
+    User user = Builders.buildUser("bob");
+    Board board = Builders.buildBoardWithId("Diseño", 1L, user);
+    Task task1 = Builders.buildTaskWithId("Tarea1", 10L, board, user, user);
+    Task task2 = Builders.buildTaskWithId("Tarea2", 11L, board, user, user);
+    Task task3 = Builders.buildTaskWithId("Tarea3", 12L, board, user, user);
+
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    when(taskRepository.findByBoardIdAndIdGreaterThanOrderByIdAsc(1L, 9L, Limit.of(3)))
+            .thenReturn(List.of(task1, task2, task3));
+
+    var page = boardService.getTasksFromBoard(1L, user, CursorPage.encode(9L), 2);
+
+    assertThat(page.items()).containsExactly(task1, task2);
+    assertThat(CursorPage.decode(page.nextCursor())).isEqualTo(11L);
+}
+
+@Test
+void getTasksFromBoard_invalidCursor_throwsException() {
+    User user = Builders.buildUser("bob");
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(Builders.buildBoardWithId("Diseño", 1L, user)));
+
+    assertThatThrownBy(() -> boardService.getTasksFromBoard(1L, user, "not-a-cursor", null))
+            .isInstanceOf(InvalidCursorException.class);
 }
 
 @Test
@@ -144,7 +319,7 @@ void getTasksFromBoard_boardNotFound_throwException() {
     User user = Builders.buildUser("bob");
     when(boardRepository.findById(1L)).thenReturn(Optional.empty());
 
-    assertThatThrownBy(() -> boardService.getTasksFromBoard(1L, user))
+    assertThatThrownBy(() -> boardService.getTasksFromBoard(1L, user, null, null))
             .isInstanceOf(BoardNotFoundException.class);
 }
 
@@ -200,6 +375,155 @@ void searchBoardsByName_noMatch_returnsEmptyList() {
     assertThat(result).isEmpty();
 }
 
+@Test
+void addTasksToBoard_authorizesOnceAndSavesAllWithoutTouchingBoardTasks() {
+    User user = Builders.buildUserWithId("bob", 1L);
+    Board board = Builders.buildBoardWithId("Diseño", 1L, user);
+    board.setTasks(null); // cualquier acceso a la colección fallaría
+    User intruder = Builders.buildUserWithId("mallory", 9L);
+    Task first = Builders.buildTaskWithId("A", 77L, null, null, intruder);
+    Task second = Builders.buildTask("B", null, null, null);
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    when(boardAclCache.isMember(1L, 1L, 0L)).thenReturn(true);
+    when(taskRepository.saveAll(List.of(first, second))).thenAnswer(inv -> {
+        first.setId(100L);
+        second.setId(101L);
+        return List.of(first, second);
+    });
+
+    List<Long> ids = boardService.addTasksToBoard(1L, List.of(first, second), user);
+
+    assertThat(ids).containsExactly(100L, 101L);
+    assertThat(List.of(first, second)).allSatisfy(t -> {
+        assertThat(t.getBoard()).isSameAs(board);
+        assertThat(t.getCreatedBy()).isSameAs(user);
+        assertThat(t.getAssignedTo()).isNull();
+    });
+    verify(boardRepository).findById(1L);
+    verify(boardAclCache).isMember(1L, 1L, 0L);
+    verify(boardRepository, never()).save(any());
+}
+
+@Test
+void addTasksToBoard_tooManyTasks_throwsBeforeLoadingBoard() {
+    User user = Builders.buildUserWithId("bob", 1L);
+    List<Task> tasks = java.util.stream.IntStream.rangeClosed(0, BoardService.MAX_TASK_BATCH)
+            .mapToObj(i -> Builders.buildTask("t" + i, null, null, null))
+            .toList();
+
+    assertThatThrownBy(() -> boardService.addTasksToBoard(1L, tasks, user))
+            .isInstanceOf(InvalidBatchException.class);
+    verifyNoInteractions(boardRepository, taskRepository);
+}
+
+@Test
+void addTasksToBoard_emptyBatch_throwsException() {
+    User user = Builders.buildUserWithId("bob", 1L);
+
+    assertThatThrownBy(() -> boardService.addTasksToBoard(1L, List.of(), user))
+            .isInstanceOf(InvalidBatchException.class);
+}
+
+@Test
+void addTasksToBoard_notMember_throwsException() {
+    User creator = Builders.buildUserWithId("bob", 1L);
+    User outsider = Builders.buildUserWithId("mallory", 2L);
+    Board board = Builders.buildBoardWithId("Diseño", 1L, creator);
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
 
+    assertThatThrownBy(() -> boardService.addTasksToBoard(1L, List.of(Builders.buildTask("A", null, null, null)), outsider))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Not authorized");
+    verify(taskRepository, never()).saveAll(any());
 }
 
+@Test
+void addTaskToBoard_savesTaskWithoutTouchingBoardTasks() {
+    User user = Builders.buildUserWithId("bob", 1L);
+    Board board = Builders.buildBoardWithId("Diseño", 1L, user);
+    board.setTasks(null); // cualquier acceso a la colección fallaría
+    Task task = Builders.buildTaskWithId("Nueva", 55L, null, null, null);
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    when(boardAclCache.isMember(1L, 1L, 0L)).thenReturn(true);
+    when(taskRepository.save(task)).thenReturn(task);
+
+    Task result = boardService.addTaskToBoard(1L, task, user);
+
+    assertThat(result.getId()).isNull();
+    assertThat(result.getBoard()).isSameAs(board);
+    assertThat(result.getCreatedBy()).isSameAs(user);
+    verify(boardRepository, never()).save(any());
+}
+
+@Test
+void removeTaskFromBoard_taskCreator_deletesByIdWithoutLoadingBoardTasks() {
+    User boardCreator = Builders.buildUserWithId("bob", 1L);
+    User taskCreator = Builders.buildUserWithId("alice", 2L);
+    Board board = Builders.buildBoardWithId("Diseño", 1L, boardCreator);
+    board.setTasks(null); // cualquier acceso a la colección fallaría
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    when(boardAclCache.isMember(1L, 2L, 0L)).thenReturn(true);
+    when(taskRepository.findCreatorIdByIdAndBoardId(10L, 1L)).thenReturn(Optional.of(2L));
+
+    boardService.removeTaskFromBoard(1L, 10L, taskCreator);
+
+    verify(taskRepository).deleteByIdAndBoardId(10L, 1L);
+    verify(boardRepository, never()).save(any());
+    verify(boardSyncService).recordTaskDeletion(10L, 1L);
+}
+
+@Test
+void removeTaskFromBoard_boardCreator_canRemoveOthersTasks() {
+    User boardCreator = Builders.buildUserWithId("bob", 1L);
+    Board board = Builders.buildBoardWithId("Diseño", 1L, boardCreator);
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    when(taskRepository.findCreatorIdByIdAndBoardId(10L, 1L)).thenReturn(Optional.of(2L));
+
+    boardService.removeTaskFromBoard(1L, 10L, boardCreator);
+
+    verify(taskRepository).deleteByIdAndBoardId(10L, 1L);
+}
+
+@Test
+void removeTaskFromBoard_otherMember_throwsException() {
+    User boardCreator = Builders.buildUserWithId("bob", 1L);
+    User member = Builders.buildUserWithId("carol", 3L);
+    Board board = Builders.buildBoardWithId("Diseño", 1L, boardCreator);
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    when(boardAclCache.isMember(1L, 3L, 0L)).thenReturn(true);
+    when(taskRepository.findCreatorIdByIdAndBoardId(10L, 1L)).thenReturn(Optional.of(2L));
+
+    assertThatThrownBy(() -> boardService.removeTaskFromBoard(1L, 10L, member))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Not authorized to remove");
+    verify(taskRepository, never()).deleteByIdAndBoardId(any(), any());
+    verify(boardSyncService, never()).recordTaskDeletion(any(), any());
+}
+
+@Test
+void removeTaskFromBoard_taskInOtherBoard_throwsException() {
+    User boardCreator = Builders.buildUserWithId("bob", 1L);
+    Board board = Builders.buildBoardWithId("Diseño", 1L, boardCreator);
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    when(taskRepository.findCreatorIdByIdAndBoardId(10L, 1L)).thenReturn(Optional.empty());
+    when(taskRepository.existsById(10L)).thenReturn(true);
+
+    assertThatThrownBy(() -> boardService.removeTaskFromBoard(1L, 10L, boardCreator))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Task not in this board");
+    verify(taskRepository, never()).deleteByIdAndBoardId(any(), any());
+}
+
+@Test
+void removeTaskFromBoard_taskNotFound_throwsException() {
+    User boardCreator = Builders.buildUserWithId("bob", 1L);
+    Board board = Builders.buildBoardWithId("Diseño", 1L, boardCreator);
+    when(boardRepository.findById(1L)).thenReturn(Optional.of(board));
+    when(taskRepository.findCreatorIdByIdAndBoardId(10L, 1L)).thenReturn(Optional.empty());
+    when(taskRepository.existsById(10L)).thenReturn(false);
+
+    assertThatThrownBy(() -> boardService.removeTaskFromBoard(1L, 10L, boardCreator))
+            .isInstanceOf(TaskNotFoundException.class);
+}
+
+}
@@ -0,0 +1,148 @@
+package com.crodrigo47.trelloBackend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crodrigo47.trelloBackend.dto.BoardDto;
+import com.crodrigo47.trelloBackend.dto.BoardSnapshotDto;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.dto.DtoMapper;
+import com.crodrigo47.trelloBackend.dto.TaskDto;
+import com.crodrigo47.trelloBackend.dto.UserDto;
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Vista de un board: GET /boards/{id}/snapshot frente a la secuencia de antes
+ * (GET /boards/{id}, /boards/{id}/users y todas las páginas de /boards/{id}/tasks).
+ * Cada petición HTTP se simula con su propia transacción (como open-in-view) y su propia
+ * resolución del usuario. Imprime mediana de latencia y sentencias SQL por vista.
+ * No corre con el resto de tests:
+ *
+ *   mvn test -Dtest=BoardSnapshotBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BoardService.class, BoardSyncService.class, BoardEventBroadcaster.class, OptimisticRetry.class,
+        BoardDeleter.class, BoardAclCache.class, SimpleMeterRegistry.class})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BoardSnapshotBenchmarkTest {
+
+    private static final int[] BOARD_SIZES = {50, 500, 5_000};
+    private static final int MEMBERS = 10;
+    private static final int ROUNDS = 20;
+
+    @Autowired BoardService boardService;
+    @Autowired UserRepository userRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @PersistenceContext EntityManager entityManager;
+
+    @Test
+    void snapshotVersusThreeCalls() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        for (int size : BOARD_SIZES) {
+            User owner = tx.execute(s -> {
+                User u = Builders.buildUser("owner" + size);
+                entityManager.persist(u);
+                return u;
+            });
+            Board board = tx.execute(s -> {
+                Board b = Builders.buildBoard("board" + size, owner);
+                b.addUser(entityManager.getReference(User.class, owner.getId()));
+                for (int m = 1; m < MEMBERS; m++) {
+                    User member = Builders.buildUser("m" + size + "-" + m);
+                    entityManager.persist(member);
+                    b.addUser(member);
+                }
+                entityManager.persist(b);
+                return b;
+            });
+            for (int from = 0; from < size; from += 1_000) {
+                int chunk = Math.min(1_000, size - from);
+                tx.executeWithoutResult(s -> {
+                    Board ref = entityManager.getReference(Board.class, board.getId());
+                    User userRef = entityManager.getReference(User.class, owner.getId());
+                    for (int i = 0; i < chunk; i++) {
+                        entityManager.persist(Builders.buildTask("t" + i, ref, userRef, i % 2 == 0 ? userRef : null));
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            }
+
+            Long boardId = board.getId();
+            String username = owner.getUsername();
+            long[] threeCalls = new long[ROUNDS];
+            long[] snapshot = new long[ROUNDS];
+            long threeCallStatements = 0;
+            long snapshotStatements = 0;
+            for (int r = 0; r < ROUNDS; r++) {
+                stats.clear();
+                long start = System.nanoTime();
+                BoardDto dto = tx.execute(s -> DtoMapper.toBoardDto(boardService.getBoardById(boardId, resolve(username))));
+                List<UserDto> users = tx.execute(s -> boardService.getUsersFromBoard(boardId, resolve(username)).stream()
+                        .map(DtoMapper::toUserDto).toList());
+                List<TaskDto> tasks = new ArrayList<>();
+                String cursor = null;
+                do {
+                    String current = cursor;
+                    CursorPage<TaskDto> page = tx.execute(s -> boardService
+                            .getTasksFromBoard(boardId, resolve(username), current, CursorPage.MAX_LIMIT)
+                            .map(DtoMapper::toTaskDto));
+                    tasks.addAll(page.items());
+                    cursor = page.nextCursor();
+                } while (cursor != null);
+                threeCalls[r] = (System.nanoTime() - start) / 1_000;
+                threeCallStatements = stats.getPrepareStatementCount();
+                assertSameView(dto, users, tasks, size);
+
+                stats.clear();
+                start = System.nanoTime();
+                BoardSnapshotDto view = tx.execute(s -> boardService.getBoardSnapshot(boardId, resolve(username), null));
+                snapshot[r] = (System.nanoTime() - start) / 1_000;
+                snapshotStatements = stats.getPrepareStatementCount();
+                if (view.tasks().size() != size || view.members().size() != MEMBERS) {
+                    throw new AssertionError("snapshot incomplete for board of " + size);
+                }
+            }
+            Arrays.sort(threeCalls);
+            Arrays.sort(snapshot);
+            System.out.printf("board with %5d tasks: 3 calls median %7d us (%4d statements), "
+                            + "snapshot median %6d us (%d statements)%n",
+                    size, threeCalls[ROUNDS / 2], threeCallStatements, snapshot[ROUNDS / 2], snapshotStatements);
+        }
+    }
+
+    // Como CurrentUserArgumentResolver: cada petición vuelve a cargar al usuario
+    private User resolve(String username) {
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+
+    private static void assertSameView(BoardDto board, List<UserDto> users, List<TaskDto> tasks, int size) {
+        if (board.taskIds().size() != size || users.size() != MEMBERS || tasks.size() != size) {
+            throw new AssertionError("three-call view incomplete for board of " + size);
+        }
+    }
+}
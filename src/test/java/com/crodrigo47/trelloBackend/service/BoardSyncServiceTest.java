@@ -0,0 +1,124 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.crodrigo47.trelloBackend.dto.BoardChangesDto;
+import com.crodrigo47.trelloBackend.dto.TaskDto;
+import com.crodrigo47.trelloBackend.dto.Watermark;
+import com.crodrigo47.trelloBackend.exception.InvalidCursorException;
+import com.crodrigo47.trelloBackend.exception.WatermarkExpiredException;
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Sin ventana de solape: la marca llega hasta 'now' y cada llamada ve solo lo posterior
+@DataJpaTest(properties = "board.changes.overlap=PT0S")
+@Import({BoardSyncService.class, BoardService.class, BoardEventBroadcaster.class, OptimisticRetry.class,
+        BoardDeleter.class, BoardAclCache.class, SimpleMeterRegistry.class})
+class BoardSyncServiceTest {
+
+    @Autowired
+    private BoardSyncService boardSyncService;
+
+    @Autowired
+    private BoardService boardService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User alice;
+    private Board board;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(Builders.buildUser("alice"));
+        board = Builders.buildBoard("sync", alice);
+        board.addUser(alice);
+        entityManager.persist(board);
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(entityManager.persist(Builders.buildTask("t" + i, board, alice, null)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getChangesSince_withoutWatermark_pagesThroughWholeBoard() {
+        List<Long> seen = new ArrayList<>();
+        String since = null;
+        BoardChangesDto page;
+        do {
+            page = boardSyncService.getChangesSince(board.getId(), alice, since, 2);
+            assertThat(page.tasks()).hasSizeLessThanOrEqualTo(2);
+            assertThat(page.deletedTaskIds()).isEmpty();
+            page.tasks().stream().map(TaskDto::id).forEach(seen::add);
+            since = page.watermark();
+        } while (page.hasMore());
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(tasks.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void getChangesSince_returnsOnlyWhatChangedAfterWatermark() throws Exception {
+        String watermark = boardSyncService.getChangesSince(board.getId(), alice, null, null).watermark();
+        Thread.sleep(2);
+
+        Task edited = entityManager.find(Task.class, tasks.get(0).getId());
+        edited.setTitle("edited");
+        Task created = boardService.addTaskToBoard(board.getId(), Builders.buildTask("new", null, null, null), alice);
+        boardService.removeTaskFromBoard(board.getId(), tasks.get(1).getId(), alice);
+        entityManager.flush();
+
+        BoardChangesDto changes = boardSyncService.getChangesSince(board.getId(), alice, watermark, null);
+
+        assertThat(changes.tasks()).extracting(TaskDto::id).containsExactlyInAnyOrder(edited.getId(), created.getId());
+        assertThat(changes.tasks()).extracting(TaskDto::title).contains("edited");
+        assertThat(changes.deletedTaskIds()).containsExactly(tasks.get(1).getId());
+        assertThat(changes.hasMore()).isFalse();
+
+        // Sin más cambios la siguiente llamada vuelve vacía
+        BoardChangesDto none = boardSyncService.getChangesSince(board.getId(), alice, changes.watermark(), null);
+        assertThat(none.tasks()).isEmpty();
+        assertThat(none.deletedTaskIds()).isEmpty();
+    }
+
+    @Test
+    void getChangesSince_watermarkOlderThanTombstones_throws() {
+        String old = new Watermark(LocalDateTime.now().minusDays(8), 0L).encode();
+
+        assertThatThrownBy(() -> boardSyncService.getChangesSince(board.getId(), alice, old, null))
+                .isInstanceOf(WatermarkExpiredException.class);
+    }
+
+    @Test
+    void getChangesSince_invalidWatermark_throws() {
+        assertThatThrownBy(() -> boardSyncService.getChangesSince(board.getId(), alice, "not-a-watermark", null))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void getChangesSince_notMember_throws() {
+        User mallory = entityManager.persist(Builders.buildUser("mallory"));
+
+        assertThatThrownBy(() -> boardSyncService.getChangesSince(board.getId(), mallory, null, null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Not authorized");
+    }
+}
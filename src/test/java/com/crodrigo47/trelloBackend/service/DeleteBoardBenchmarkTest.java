@@ -0,0 +1,92 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Borrado de un board con 50.000 tareas y 50 miembros. No corre con el resto de tests:
+ *
+ *   mvn test -Dtest=DeleteBoardBenchmarkTest -Dbenchmark=true [-Dboard.delete.chunk-size=5000]
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BoardService.class, BoardSyncService.class, BoardEventBroadcaster.class, OptimisticRetry.class,
+        BoardDeleter.class, BoardAclCache.class, SimpleMeterRegistry.class})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeleteBoardBenchmarkTest {
+
+    private static final int TASKS = 50_000;
+    private static final int MEMBERS = 50;
+
+    @Autowired BoardService boardService;
+    @Autowired BoardRepository boardRepository;
+    @Autowired TaskRepository taskRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @PersistenceContext EntityManager entityManager;
+
+    @Test
+    void deleteBoardWith50kTasks() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        User owner = tx.execute(s -> {
+            User u = Builders.buildUser("owner");
+            entityManager.persist(u);
+            return u;
+        });
+        Board board = tx.execute(s -> {
+            Board b = Builders.buildBoard("big", owner);
+            b.addUser(entityManager.getReference(User.class, owner.getId()));
+            for (int m = 1; m < MEMBERS; m++) {
+                User member = Builders.buildUser("member" + m);
+                entityManager.persist(member);
+                b.addUser(member);
+            }
+            entityManager.persist(b);
+            return b;
+        });
+        for (int from = 0; from < TASKS; from += 1_000) {
+            tx.executeWithoutResult(s -> {
+                Board ref = entityManager.getReference(Board.class, board.getId());
+                User userRef = entityManager.getReference(User.class, owner.getId());
+                for (int i = 0; i < 1_000; i++) {
+                    entityManager.persist(Builders.buildTask("t" + i, ref, userRef, userRef));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        long start = System.nanoTime();
+        boardService.deleteBoard(board.getId(), owner);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("deleteBoard with %d tasks and %d members: %d ms, %d JDBC statements, %d entities loaded%n",
+                TASKS, MEMBERS, millis, stats.getPrepareStatementCount(), stats.getEntityLoadCount());
+        assertThat(boardRepository.findById(board.getId())).isEmpty();
+        assertThat(taskRepository.count()).isZero();
+    }
+}
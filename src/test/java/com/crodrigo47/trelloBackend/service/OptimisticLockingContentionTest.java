@@ -0,0 +1,155 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crodrigo47.trelloBackend.exception.ConcurrentUpdateException;
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
+import com.crodrigo47.trelloBackend.repository.TaskRepository;
+import com.crodrigo47.trelloBackend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Escritores concurrentes sobre un mismo board y una misma tarea (2, 8 y 32 hilos).
+ * - addUserToBoard: cada alta es un usuario distinto; los choques los absorbe OptimisticRetry
+ *   y, si se agotan los intentos, 409. No se pierde ninguna alta que haya devuelto OK.
+ * - updateTask con 'version': contador en la descripción con lectura-modificación-escritura
+ *   como haría un cliente, que reintenta al recibir 409. El valor final cuadra con las
+ *   operaciones, es decir, ninguna edición pisa a otra.
+ * Imprime operaciones correctas por segundo en cada nivel.
+ */
+@DataJpaTest(showSql = false, properties = "optimistic-lock.retry.max-attempts=5")
+@Import({BoardService.class, BoardSyncService.class, BoardEventBroadcaster.class, TaskService.class,
+        OptimisticRetry.class, BoardDeleter.class, BoardAclCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticLockingContentionTest {
+
+    private static final int[] WRITERS = {2, 8, 32};
+    // Divisible entre todos los niveles: mismo trabajo total en cada uno
+    private static final int OPS_PER_LEVEL = 64;
+
+    @Autowired BoardService boardService;
+    @Autowired TaskService taskService;
+    @Autowired UserRepository userRepository;
+    @Autowired BoardRepository boardRepository;
+    @Autowired TaskRepository taskRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(s -> {
+            taskRepository.deleteAllInBatch();
+            boardRepository.deleteAllInBatch();
+            userRepository.deleteAllInBatch();
+        });
+    }
+
+    @Test
+    void concurrentWritersNeverLoseUpdates() throws Exception {
+        for (int writers : WRITERS) {
+            User owner = userRepository.save(Builders.buildUser("owner" + writers));
+            Board board = boardService.createBoard(Builders.buildBoard("board" + writers, owner), owner);
+            Task counter = Builders.buildTask("counter", null, null, null);
+            counter.setDescription("0");
+            Long taskId = boardService.addTaskToBoard(board.getId(), counter, owner).getId();
+
+            List<Long> newMembers = new ArrayList<>();
+            for (int i = 0; i < OPS_PER_LEVEL; i++) {
+                newMembers.add(userRepository.save(Builders.buildUser("w" + writers + "-" + i)).getId());
+            }
+
+            // --- altas de miembros: reintento en el servidor ---
+            AtomicInteger added = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            long millis = runConcurrently(writers, (writer, op) -> {
+                Long userId = newMembers.get(writer * (OPS_PER_LEVEL / writers) + op);
+                try {
+                    boardService.addUserToBoard(board.getId(), userId, owner);
+                    added.incrementAndGet();
+                } catch (ConcurrentUpdateException e) {
+                    rejected.incrementAndGet();
+                }
+            });
+            assertThat(boardRepository.findMemberIdsById(board.getId())).hasSize(1 + added.get());
+            System.out.printf("%2d writers, addUserToBoard: %4d ok, %3d x 409, %6.0f ok ops/s%n",
+                    writers, added.get(), rejected.get(), added.get() * 1000.0 / Math.max(1, millis));
+
+            // --- contador con versión del cliente: el cliente reintenta tras el 409 ---
+            AtomicInteger conflicts = new AtomicInteger();
+            millis = runConcurrently(writers, (writer, op) -> {
+                while (true) {
+                    Task current = taskRepository.findById(taskId).orElseThrow();
+                    Task edit = Builders.buildTaskWithId(current.getTitle(), taskId, null, null, null);
+                    edit.setDescription(String.valueOf(Integer.parseInt(current.getDescription()) + 1));
+                    edit.setStatus(current.getStatus());
+                    edit.setVersion(current.getVersion());
+                    try {
+                        taskService.updateTask(edit, owner);
+                        return;
+                    } catch (ConcurrentUpdateException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            });
+            assertThat(taskRepository.findById(taskId).orElseThrow().getDescription())
+                    .isEqualTo(String.valueOf(OPS_PER_LEVEL));
+            System.out.printf("%2d writers, updateTask(version): %4d ok, %4d x 409, %6.0f ok ops/s%n",
+                    writers, OPS_PER_LEVEL, conflicts.get(), OPS_PER_LEVEL * 1000.0 / Math.max(1, millis));
+
+            cleanUp();
+        }
+    }
+
+    private interface WriterOp {
+        void run(int writer, int op) throws Exception;
+    }
+
+    // Todos los hilos arrancan a la vez; devuelve los milisegundos hasta que termina el último
+    private long runConcurrently(int writers, WriterOp body) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        int opsPerWriter = OPS_PER_LEVEL / writers;
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int op = 0; op < opsPerWriter; op++) {
+                    body.run(writer, op);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+        pool.shutdown();
+        return millis;
+    }
+}
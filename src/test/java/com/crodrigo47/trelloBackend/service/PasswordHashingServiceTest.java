@@ -0,0 +1,93 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.crodrigo47.trelloBackend.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService service;
+
+    // Encoder que se queda bloqueado hasta que el test lo libera, para poder llenar el pool
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hashed-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("hashed-" + rawPassword);
+        }
+
+        private void await() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_runOffTheCallingThread() throws Exception {
+        service = new PasswordHashingService(blockingEncoder, registry, 2, 4, Duration.ofSeconds(1));
+        release.countDown();
+
+        String hash = service.encode("secret").get(5, TimeUnit.SECONDS);
+
+        assertThat(hash).isEqualTo("hashed-secret");
+        assertThat(service.matches("secret", hash).get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.matches("other", hash).get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(registry.get("auth.hashing.duration").tag("operation", "encode").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fullPoolAndQueue_rejectsImmediately() throws Exception {
+        service = new PasswordHashingService(blockingEncoder, registry, 1, 1, Duration.ofSeconds(3));
+
+        CompletableFuture<String> running = service.encode("a");
+        waitUntilQueueIsEmpty();
+        CompletableFuture<String> queued = service.encode("b");
+
+        assertThat(service.getQueueSize()).isEqualTo(1);
+        assertThatThrownBy(() -> service.encode("c"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .satisfies(e -> assertThat(((ServiceUnavailableException) e).getRetryAfter())
+                        .isEqualTo(Duration.ofSeconds(3)));
+        assertThat(registry.get("auth.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed-a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed-b");
+    }
+
+    private void waitUntilQueueIsEmpty() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getQueueSize() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
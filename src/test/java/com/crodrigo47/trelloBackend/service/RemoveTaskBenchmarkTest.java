@@ -0,0 +1,90 @@
+package com.crodrigo47.trelloBackend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.Task;
+import com.crodrigo47.trelloBackend.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Latencia de removeTaskFromBoard según el tamaño del board (mediana de 20 borrados).
+ * No corre con el resto de tests:
+ *
+ *   mvn test -Dtest=RemoveTaskBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest(showSql = false)
+@Import({BoardService.class, BoardSyncService.class, BoardEventBroadcaster.class, OptimisticRetry.class,
+        BoardAclCache.class, SimpleMeterRegistry.class})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RemoveTaskBenchmarkTest {
+
+    private static final int[] BOARD_SIZES = {100, 1_000, 10_000, 50_000};
+    private static final int REMOVALS = 20;
+
+    @Autowired BoardService boardService;
+    @Autowired PlatformTransactionManager transactionManager;
+    @PersistenceContext EntityManager entityManager;
+
+    @Test
+    void removalLatencyByBoardSize() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        User owner = tx.execute(s -> {
+            User u = Builders.buildUser("owner");
+            entityManager.persist(u);
+            return u;
+        });
+
+        for (int size : BOARD_SIZES) {
+            Board board = tx.execute(s -> {
+                Board b = Builders.buildBoard("board" + size, owner);
+                b.addUser(entityManager.getReference(User.class, owner.getId()));
+                entityManager.persist(b);
+                return b;
+            });
+            List<Long> taskIds = new ArrayList<>();
+            for (int from = 0; from < size; from += 1_000) {
+                int chunk = Math.min(1_000, size - from);
+                tx.executeWithoutResult(s -> {
+                    Board ref = entityManager.getReference(Board.class, board.getId());
+                    User userRef = entityManager.getReference(User.class, owner.getId());
+                    for (int i = 0; i < chunk; i++) {
+                        Task task = Builders.buildTask("t" + i, ref, userRef, null);
+                        entityManager.persist(task);
+                        taskIds.add(task.getId());
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            }
+
+            long[] micros = new long[REMOVALS];
+            for (int i = 0; i < REMOVALS; i++) {
+                Long taskId = taskIds.get(i * (size / REMOVALS));
+                long start = System.nanoTime();
+                tx.executeWithoutResult(s -> boardService.removeTaskFromBoard(board.getId(), taskId, owner));
+                micros[i] = (System.nanoTime() - start) / 1_000;
+            }
+            Arrays.sort(micros);
+            System.out.printf("board with %6d tasks: removeTaskFromBoard median %d us, p90 %d us%n",
+                    size, micros[REMOVALS / 2], micros[REMOVALS * 9 / 10]);
+        }
+    }
+}
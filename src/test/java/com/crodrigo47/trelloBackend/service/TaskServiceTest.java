@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,21 +13,47 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.exception.ConcurrentUpdateException;
 import com.crodrigo47.trelloBackend.exception.TaskNotFoundException;
 import com.crodrigo47.trelloBackend.helper.Builders;
 import com.crodrigo47.trelloBackend.model.Board;
 import com.crodrigo47.trelloBackend.model.Task;
 import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
 import com.crodrigo47.trelloBackend.repository.TaskRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class TaskServiceTest {
 
     @Mock
     TaskRepository taskRepository;
 
+    @Mock
+    BoardRepository boardRepository;
+
+    @Mock
+    BoardAclCache boardAclCache;
+
+    @Mock
+    BoardSyncService boardSyncService;
+
+    @Mock
+    BoardEventBroadcaster boardEvents;
+
+    // Reintentos reales sobre un gestor de transacciones simulado, sin esperas
+    @Spy
+    OptimisticRetry optimisticRetry = new OptimisticRetry(
+            mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 3, Duration.ZERO, Duration.ZERO);
+
     @InjectMocks
     TaskService taskService;
 
@@ -113,6 +140,57 @@ class TaskServiceTest {
         verify(taskRepository).save(existing);
     }
 
+    @Test
+    void updateTask_staleVersion_throwsConflictWithCurrentVersion() {
+        User creator = Builders.buildUserWithId("bob", 1L);
+        Board board = Builders.buildBoardWithId("Diseño", 2L, creator);
+        Task existing = Builders.buildTaskWithId("vieja tarea", 3L, board, creator, creator);
+        existing.setVersion(7L);
+        Task updated = Builders.buildTaskWithId("nueva tarea", 3L, board, creator, creator);
+        updated.setVersion(6L);
+
+        when(taskRepository.findById(3L)).thenReturn(Optional.of(existing));
+
+        assertThatThrownBy(() -> taskService.updateTask(updated, creator))
+                .isInstanceOf(ConcurrentUpdateException.class)
+                .extracting("currentVersion").isEqualTo(7L);
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    void updateTask_lostRace_isRetriedOnFreshCopy() {
+        User creator = Builders.buildUserWithId("bob", 1L);
+        Board board = Builders.buildBoardWithId("Diseño", 2L, creator);
+        Task stale = Builders.buildTaskWithId("vieja tarea", 3L, board, creator, creator);
+        Task fresh = Builders.buildTaskWithId("vieja tarea", 3L, board, creator, creator);
+        Task updated = Builders.buildTaskWithId("nueva tarea", 3L, board, creator, creator);
+
+        when(taskRepository.findById(3L)).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(taskRepository.save(stale)).thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 3L));
+        when(taskRepository.save(fresh)).thenReturn(fresh);
+
+        Task result = taskService.updateTask(updated, creator);
+
+        assertThat(result).isSameAs(fresh);
+        assertThat(result.getTitle()).isEqualTo("nueva tarea");
+    }
+
+    @Test
+    void updateTask_retriesExhausted_throwsConflict() {
+        User creator = Builders.buildUserWithId("bob", 1L);
+        Board board = Builders.buildBoardWithId("Diseño", 2L, creator);
+        Task existing = Builders.buildTaskWithId("vieja tarea", 3L, board, creator, creator);
+
+        when(taskRepository.findById(3L)).thenReturn(Optional.of(existing));
+        when(taskRepository.save(any(Task.class))).thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 3L));
+        when(taskRepository.findVersionById(3L)).thenReturn(Optional.of(12L));
+
+        assertThatThrownBy(() -> taskService.updateTask(existing, creator))
+                .isInstanceOf(ConcurrentUpdateException.class)
+                .extracting("currentVersion").isEqualTo(12L);
+        verify(taskRepository, times(3)).save(existing);
+    }
+
     @Test
     void deleteTask_existingTask_deletesTask() {
         User creator = Builders.buildUserWithId("bob", 1L);
@@ -125,6 +203,7 @@ class TaskServiceTest {
         taskService.deleteTask(3L, creator);
 
         verify(taskRepository).delete(task);
+        verify(boardSyncService).recordTaskDeletion(3L, 2L);
     }
 
     @Test
@@ -139,6 +218,7 @@ class TaskServiceTest {
         Task task = Builders.buildTaskWithId("tarea", 4L, board, creator, creator);
 
         when(taskRepository.findById(4L)).thenReturn(Optional.of(task));
+        when(boardAclCache.isMember(3L, 2L, 0L)).thenReturn(true);
         when(taskRepository.save(any(Task.class))).thenReturn(task);
 
         Task result = taskService.assignTaskToUser(4L, creator, assignee);
@@ -146,6 +226,21 @@ class TaskServiceTest {
         assertThat(result.getAssignedTo()).isEqualTo(assignee);
     }
 
+    @Test
+    void getTaskById_member_isCheckedWithoutLoadingBoardUsers() {
+        User creator = Builders.buildUserWithId("bob", 1L);
+        User member = Builders.buildUserWithId("alice", 2L);
+        Board board = Builders.buildBoardWithId("Diseño", 3L, creator);
+        board.setUsers(null); // cualquier acceso a la colección fallaría
+
+        Task task = Builders.buildTaskWithId("tarea", 4L, board, creator, creator);
+        when(taskRepository.findById(4L)).thenReturn(Optional.of(task));
+        when(boardAclCache.isMember(3L, 2L, 0L)).thenReturn(true);
+
+        assertThat(taskService.getTaskById(4L, member)).isEqualTo(task);
+        verify(boardAclCache).isMember(3L, 2L, 0L);
+    }
+
     @Test
     void assignTaskToUser_userNotOnBoard_throwsException() {
         User creator = Builders.buildUserWithId("bob", 1L);
@@ -182,12 +277,33 @@ class TaskServiceTest {
 
     @Test
     void getTasksByBoard_returnsList() {
-        when(taskRepository.findByBoardIdAndBoardUsersId(1L, 2L))
+        when(taskRepository.findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(1L, 2L, 0L, Limit.unlimited()))
                 .thenReturn(List.of(Builders.buildTask("tarea", Builders.buildBoard("Diseño", Builders.buildUser("bob")), Builders.buildUser("bob"), Builders.buildUser("bob"))));
 
-        var result = taskService.getTasksByBoard(1L, 2L);
+        var result = taskService.getTasksByBoard(1L, 2L, null, null);
 
-        assertThat(result).hasSize(1);
+        assertThat(result.items()).hasSize(1);
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getTasksByBoard_limitIsCapped() {
+        when(taskRepository.findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(1L, 2L, 0L, Limit.of(CursorPage.MAX_LIMIT + 1)))
+                .thenReturn(List.of());
+
+        var result = taskService.getTasksByBoard(1L, 2L, null, 100_000);
+
+        assertThat(result.items()).isEmpty();
+    }
+
+    @Test
+    void getTasksByBoard_cursorWithoutLimit_usesDefaultPageSize() {
+        when(taskRepository.findByBoardIdAndBoardUsersIdAndIdGreaterThanOrderByIdAsc(1L, 2L, 9L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of());
+
+        var result = taskService.getTasksByBoard(1L, 2L, CursorPage.encode(9L), null);
+
+        assertThat(result.items()).isEmpty();
     }
 
     @Test
@@ -0,0 +1,95 @@
+package com.crodrigo47.trelloBackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.dto.UserDto;
+import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.Board;
+import com.crodrigo47.trelloBackend.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// El listado de administración no debe cargar entidades ni colecciones por usuario
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({UserService.class, AccountDeletionService.class, BoardEventBroadcaster.class, BoardDeleter.class,
+        BoardAclCache.class, BoardSyncService.class, BCryptPasswordEncoder.class, SimpleMeterRegistry.class})
+class UserServiceQueryCountTest {
+
+    private static final int USERS = 1_200;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics stats;
+
+    @BeforeEach
+    void setup() {
+        User owner = entityManager.persist(Builders.buildUser("owner"));
+        Board board = Builders.buildBoard("Compartido", owner);
+        board.addUser(owner);
+        for (int i = 1; i < USERS; i++) {
+            User user = entityManager.persist(Builders.buildUser("user" + i));
+            if (i % 3 == 0) {
+                board.addUser(user);
+            }
+        }
+        entityManager.persist(board);
+        entityManager.flush();
+        entityManager.clear();
+
+        stats = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void streamAllUsers_readsRowsWithoutLoadingEntities() {
+        List<Long> ids = new ArrayList<>();
+        long[] withBoards = {0};
+        userService.streamAllUsers(user -> {
+            ids.add(user.id());
+            if (!user.boardIds().isEmpty()) withBoards[0]++;
+        });
+
+        assertThat(ids).hasSize(USERS).isSorted().doesNotHaveDuplicates();
+        assertThat(withBoards[0]).isEqualTo(1 + (USERS - 1) / 3);
+        // 1 cursor + 2 consultas de ids por bloque de 500
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1 + 2 * 3);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(stats.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void getUsersPage_walksAllUsersWithThreeStatementsPerPage() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<UserDto> page = userService.getUsersPage(cursor, CursorPage.MAX_LIMIT);
+            page.items().forEach(user -> ids.add(user.id()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(ids).hasSize(USERS).isSorted().doesNotHaveDuplicates();
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3L * pages);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+}
@@ -1,18 +1,31 @@
 package com.crodrigo47.trelloBackend.service;
 
+import com.crodrigo47.trelloBackend.dto.AccountDeletionDto;
+import com.crodrigo47.trelloBackend.dto.BoardEventDto;
+import com.crodrigo47.trelloBackend.dto.CursorPage;
+import com.crodrigo47.trelloBackend.dto.UserChildId;
+import com.crodrigo47.trelloBackend.dto.UserDto;
+import com.crodrigo47.trelloBackend.dto.UserRow;
 import com.crodrigo47.trelloBackend.dto.UserSearchDto;
 import com.crodrigo47.trelloBackend.helper.Builders;
+import com.crodrigo47.trelloBackend.model.AccountDeletion;
 import com.crodrigo47.trelloBackend.model.User;
+import com.crodrigo47.trelloBackend.repository.BoardRepository;
 import com.crodrigo47.trelloBackend.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,17 +41,46 @@ class UserServiceTest {
     @Mock
     BCryptPasswordEncoder passwordEncoder;
 
+    @Mock
+    AccountDeletionService accountDeletionService;
+
+    @Mock
+    BoardRepository boardRepository;
+
+    @Mock
+    BoardEventBroadcaster boardEvents;
+
     @InjectMocks
     UserService userService;
 
     @Test
-    void getAllUsers_returnsList() {
-        when(userRepository.findAll()).thenReturn(List.of(Builders.buildUser("bob")));
+    void getUsersPage_returnsDtosWithIds() {
+        when(userRepository.findRowsAfter(0L, Limit.of(CursorPage.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.of(new UserRow(1L, "bob", User.Role.USER)));
+        when(userRepository.findBoardIdsByUserIds(List.of(1L))).thenReturn(List.of(new UserChildId(1L, 5L)));
+        when(userRepository.findTaskIdsByUserIds(List.of(1L))).thenReturn(List.of());
 
-        var result = userService.getAllUsers();
+        var result = userService.getUsersPage(null, null);
 
-        assertThat(result).hasSize(1);
-        verify(userRepository).findAll();
+        assertThat(result.items()).containsExactly(new UserDto(1L, "bob", User.Role.USER, Set.of(5L), Set.of()));
+        assertThat(result.nextCursor()).isNull();
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void streamAllUsers_mapsRowsInChunks() {
+        List<UserRow> rows = LongStream.rangeClosed(1, 501)
+                .mapToObj(id -> new UserRow(id, "user" + id, User.Role.USER))
+                .toList();
+        when(userRepository.streamAllRows()).thenReturn(rows.stream());
+        when(userRepository.findBoardIdsByUserIds(any())).thenReturn(List.of());
+        when(userRepository.findTaskIdsByUserIds(any())).thenReturn(List.of());
+
+        List<UserDto> received = new ArrayList<>();
+        userService.streamAllUsers(received::add);
+
+        assertThat(received).hasSize(501).extracting(UserDto::id).startsWith(1L, 2L).endsWith(501L);
+        verify(userRepository, times(2)).findBoardIdsByUserIds(any());
     }
 
     @Test
@@ -102,12 +144,49 @@ class UserServiceTest {
         assertThat(updated.getPassword()).isEqualTo("encodedPassword");
         verify(passwordEncoder).encode("plainPassword");
         verify(userRepository).save(userToUpdate);
+        verifyNoInteractions(boardRepository, boardEvents);
+    }
+
+    @Test
+    void updateUser_rename_touchesMemberBoards() {
+        User renamed = Builders.buildUserWithId("bobby", 1L);
+        renamed.setPassword(null);
+
+        when(userRepository.findStoredUsernameById(1L)).thenReturn(Optional.of("bob"));
+        when(userRepository.save(renamed)).thenReturn(renamed);
+        when(boardRepository.findIdsByMemberId(1L, Limit.unlimited())).thenReturn(List.of(5L, 6L));
+
+        userService.updateUser(renamed);
+
+        verify(boardRepository).incrementChangeCounts(List.of(5L, 6L));
+        verify(boardEvents).publish(BoardEventDto.Type.RESYNC, 5L, null, null);
+        verify(boardEvents).publish(BoardEventDto.Type.RESYNC, 6L, null, null);
+    }
+
+    @Test
+    void updateUser_sameUsername_doesNotTouchBoards() {
+        User user = Builders.buildUserWithId("bob", 1L);
+        user.setPassword(null);
+
+        when(userRepository.findStoredUsernameById(1L)).thenReturn(Optional.of("bob"));
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.updateUser(user);
+
+        verifyNoInteractions(boardRepository, boardEvents);
     }
 
     @Test
-    void deleteUser_callsRepository() {
-        userService.deleteUser(10L);
+    void deleteUser_requestsBackgroundDeletion() {
+        LocalDateTime now = LocalDateTime.now();
+        when(accountDeletionService.request(10L)).thenReturn(AccountDeletion.builder()
+                .userId(10L).phase(AccountDeletion.Phase.UNASSIGN_TASKS).requestedAt(now).updatedAt(now).build());
+
+        AccountDeletionDto result = userService.deleteUser(10L);
 
-        verify(userRepository).deleteById(10L);
+        assertThat(result.userId()).isEqualTo(10L);
+        assertThat(result.done()).isFalse();
+        // El borrado real lo hace el worker, no la petición
+        verify(userRepository, never()).deleteById(any());
     }
 }